@@ -0,0 +1,95 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.GstObjectAPI.GstObjectStruct;
+
+import static org.freedesktop.gstreamer.lowlevel.GstAllocatorAPI.GSTALLOCATOR_API;
+
+/**
+ * Memory blocks are usually created by allocators. An Allocator is used to
+ * create {@link MemoryBlock}s of a particular type, eg. system memory, or
+ * memory backed by a file descriptor.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/gstreamer/gstallocator.html"
+ * >https://gstreamer.freedesktop.org/documentation/gstreamer/gstallocator.html</a>
+ */
+public class Allocator extends GstObject {
+
+    public static final String GTYPE_NAME = "GstAllocator";
+
+    private static final int MEM_TYPE_OFFSET = new GstObjectStruct().size();
+
+    /**
+     * This constructor is for internal use only.
+     *
+     * @param init initialization data.
+     */
+    protected Allocator(Initializer init) {
+        super(init);
+    }
+
+    /**
+     * Get the type of memory created by this allocator, eg.
+     * {@code "SystemMemory"} or {@code "fd"}.
+     *
+     * @return memory type
+     */
+    public String getMemoryType() {
+        Pointer memType = getRawPointer().getPointer(MEM_TYPE_OFFSET);
+        return memType == null ? null : memType.getString(0);
+    }
+
+    /**
+     * Allocate a new {@link MemoryBlock} of at least the given size, using
+     * the default allocation parameters.
+     *
+     * @param size size of the memory
+     * @return new memory
+     * @throws OutOfMemoryError if the memory could not be allocated
+     */
+    public MemoryBlock allocate(int size) {
+        Pointer ptr = GSTALLOCATOR_API.ptr_gst_allocator_alloc(this, new NativeLong(size), null);
+        if (ptr == null) {
+            throw new OutOfMemoryError("Could not allocate memory of size " + size);
+        }
+        return Natives.callerOwnsReturn(ptr, MemoryBlock.class);
+    }
+
+    /**
+     * Find a previously registered allocator with the given name.
+     *
+     * @param name name of the allocator
+     * @return allocator or null if not found
+     */
+    public static Allocator find(String name) {
+        return GSTALLOCATOR_API.gst_allocator_find(name);
+    }
+
+    /**
+     * Get the default allocator, usually the system memory allocator.
+     *
+     * @return default allocator
+     */
+    public static Allocator getDefault() {
+        return GSTALLOCATOR_API.gst_allocator_find(null);
+    }
+
+}
@@ -26,15 +26,21 @@ import static org.freedesktop.gstreamer.lowlevel.GstBufferAPI.GSTBUFFER_API;
 
 import java.nio.ByteBuffer;
 
+import org.freedesktop.gstreamer.lowlevel.CallbackRegistry;
 import org.freedesktop.gstreamer.lowlevel.GstBufferAPI;
 import org.freedesktop.gstreamer.lowlevel.GstBufferAPI.BufferStruct;
-import org.freedesktop.gstreamer.lowlevel.GstBufferAPI.MapInfoStruct;
+import org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.MiniObjectStruct;
 
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.PointerByReference;
 import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.freedesktop.gstreamer.glib.NativeFlags;
 import org.freedesktop.gstreamer.glib.Natives;
 import org.freedesktop.gstreamer.lowlevel.GType;
@@ -53,8 +59,25 @@ public class Buffer extends MiniObject {
 
     public static final String GTYPE_NAME = "GstBuffer";
 
-    private final MapInfoStruct mapInfo;
-    private final BufferStruct struct;
+    private static final int FLAGS_OFFSET;
+    private static final int PTS_OFFSET;
+    private static final int DTS_OFFSET;
+    private static final int DURATION_OFFSET;
+    private static final int OFFSET_OFFSET;
+    private static final int OFFSET_END_OFFSET;
+
+    static {
+        BufferStruct struct = new BufferStruct(null);
+        FLAGS_OFFSET = struct.fieldOffset("mini_object")
+                + new MiniObjectStruct().fieldOffset("flags");
+        PTS_OFFSET = struct.fieldOffset("pts");
+        DTS_OFFSET = struct.fieldOffset("dts");
+        DURATION_OFFSET = struct.fieldOffset("duration");
+        OFFSET_OFFSET = struct.fieldOffset("offset");
+        OFFSET_END_OFFSET = struct.fieldOffset("offset_end");
+    }
+
+    private volatile MappedBuffer mapping;
 
     /**
      * Creates a newly allocated buffer without any data.
@@ -78,8 +101,6 @@ public class Buffer extends MiniObject {
 
     Buffer(Initializer init) {
         super(init);
-        mapInfo = new MapInfoStruct();
-        struct = new BufferStruct(getRawPointer());
     }
 
     private static Pointer allocBuffer(int size) {
@@ -90,6 +111,63 @@ public class Buffer extends MiniObject {
         return ptr;
     }
 
+    /**
+     * Creates a Buffer that wraps the remaining content of the provided direct
+     * {@link ByteBuffer}, without copying the data.
+     * <p>
+     * This is equivalent to calling {@link #wrap(java.nio.ByteBuffer, java.util.function.Consumer)
+     * } with a null release callback.
+     *
+     * @param data a direct ByteBuffer
+     * @return a new Buffer sharing the ByteBuffer's memory
+     * @throws IllegalArgumentException if data is not a direct ByteBuffer
+     */
+    public static Buffer wrap(ByteBuffer data) {
+        return wrap(data, null);
+    }
+
+    /**
+     * Creates a Buffer that wraps the remaining content of the provided direct
+     * {@link ByteBuffer}, without copying the data. The Buffer will contain a
+     * single memory block covering the region from the ByteBuffer's position to
+     * its limit. The position and limit of the ByteBuffer are not changed.
+     * <p>
+     * A strong reference to the ByteBuffer is kept until GStreamer releases
+     * the wrapped memory, which may be some time after this Buffer has been
+     * pushed into a pipeline or disposed. The optional release callback is
+     * then passed the original ByteBuffer so that it may be recycled. The
+     * callback may be called on any thread, including native streaming
+     * threads, and should not block. The content of the ByteBuffer must not be
+     * modified until it has been released.
+     * <p>
+     * If the ByteBuffer is read-only, the wrapped memory will be marked as
+     * read-only, and mapping the Buffer as writable will cause a copy of the
+     * data to be made.
+     *
+     * @param data a direct ByteBuffer
+     * @param release callback to be called with data when GStreamer no longer
+     * requires the memory, or null
+     * @return a new Buffer sharing the ByteBuffer's memory
+     * @throws IllegalArgumentException if data is not a direct ByteBuffer
+     */
+    public static Buffer wrap(ByteBuffer data, Consumer<ByteBuffer> release) {
+        if (!data.isDirect()) {
+            throw new IllegalArgumentException("ByteBuffer must be direct");
+        }
+        int size = data.remaining();
+        Pointer ptr = Native.getDirectBufferPointer(data).share(data.position());
+        int flags = data.isReadOnly() ? GstBufferAPI.GST_MEMORY_FLAG_READONLY : 0;
+        Pointer userData = WrappedData.REGISTRY.register(new WrappedData(data, release));
+        Pointer buffer = GSTBUFFER_API.ptr_gst_buffer_new_wrapped_full(flags,
+                ptr, new NativeLong(size), new NativeLong(0), new NativeLong(size),
+                userData, WrappedData.REGISTRY.getDestroyNotify());
+        if (buffer == null) {
+            WrappedData.REGISTRY.remove(userData);
+            throw new IllegalArgumentException("Could not wrap ByteBuffer " + data);
+        }
+        return new Buffer(Natives.initializer(buffer));
+    }
+
     /**
      * Gets a {@link java.nio.ByteBuffer} that can access the native memory
      * associated with this Buffer, with the option of ensuring the memory is
@@ -101,24 +179,159 @@ public class Buffer extends MiniObject {
      * replaced with this writable copy.
      * <p>
      * <b>The Buffer should be unmapped with {@link #unmap()} after usage.</b>
+     * <p>
+     * This method only supports a single mapping of the Buffer at a time. Use
+     * {@link #mapped(boolean)} for concurrent or nested mappings.
      *
      * @param writable
-     * @return A {@link java.nio.ByteBuffer} that can access this Buffer's data.
+     * @return A {@link java.nio.ByteBuffer} that can access this Buffer's data,
+     * or null if the Buffer could not be mapped or has no data.
      */
     public ByteBuffer map(boolean writable) {
-        final boolean ok = GSTBUFFER_API.gst_buffer_map(this, mapInfo,
-                writable ? GstBufferAPI.GST_MAP_WRITE : GstBufferAPI.GST_MAP_READ);
-        if (ok && mapInfo.data != null) {
-            return mapInfo.data.getByteBuffer(0, mapInfo.size.intValue());
+        return legacyMap(MappedBuffer.map(this, -1, -1, writable));
+    }
+
+    /**
+     * Gets a {@link java.nio.ByteBuffer} that can access the native memory of
+     * {@code length} memory blocks of this Buffer, starting at index
+     * {@code idx}, with the option of ensuring the memory is writable.
+     * <p>
+     * A length of -1 maps all memory blocks from idx to the end of the Buffer.
+     * Mapping a single memory block never requires the data to be merged, so
+     * {@code map(idx, 1, writable)} is the cheapest way to access a Buffer
+     * made of multiple memory blocks one block at a time. Mapping a range of
+     * more than one block will merge the blocks into a temporary allocation.
+     * <p>
+     * <b>The Buffer should be unmapped with {@link #unmap()} after usage.</b>
+     * <p>
+     * This method only supports a single mapping of the Buffer at a time. Use
+     * {@link #mapped(int, int, boolean)} for concurrent or nested mappings.
+     *
+     * @param idx index of the first memory block to map
+     * @param length number of memory blocks to map, or -1 for all remaining
+     * @param writable whether the mapping should be writable
+     * @return A {@link java.nio.ByteBuffer} that can access the requested
+     * memory, or null if the memory could not be mapped or has no data
+     * @throws IndexOutOfBoundsException if idx and length do not describe a
+     * valid range of memory blocks
+     */
+    public ByteBuffer map(int idx, int length, boolean writable) {
+        checkMemoryRange(idx, length);
+        return legacyMap(MappedBuffer.map(this, idx, length, writable));
+    }
+
+    /**
+     * Gets an array of {@link java.nio.ByteBuffer}, one for each memory block
+     * of this Buffer, with the option of ensuring the memory is writable.
+     * <p>
+     * Unlike {@link #map(boolean)}, the memory blocks are mapped individually
+     * and never merged into a new allocation. The returned array is suitable
+     * for scatter / gather IO, eg. using
+     * {@link java.nio.channels.GatheringByteChannel}.
+     * <p>
+     * <b>The Buffer should be unmapped with {@link #unmap()} after usage.</b>
+     * <p>
+     * This method only supports a single mapping of the Buffer at a time. Use
+     * {@link #mappedMemories(boolean)} for concurrent or nested mappings.
+     *
+     * @param writable whether the mapping should be writable
+     * @return an array of ByteBuffer, one per memory block, or null if the
+     * memory could not be mapped
+     */
+    public ByteBuffer[] mapMemories(boolean writable) {
+        MappedBuffer mapped = MappedBuffer.mapMemories(this, writable);
+        if (mapped == null) {
+            return null;
         }
-        return null;
+        mapping = mapped;
+        return mapped.getByteBuffers();
     }
 
     /**
-     * Release the memory previously mapped with {@link #map(boolean)}
+     * Release the memory previously mapped with {@link #map(boolean)},
+     * {@link #map(int, int, boolean)} or {@link #mapMemories(boolean)}
      */
     public void unmap() {
-        GSTBUFFER_API.gst_buffer_unmap(this, mapInfo);
+        MappedBuffer mapped = mapping;
+        if (mapped != null) {
+            mapping = null;
+            mapped.close();
+        }
+    }
+
+    /**
+     * Map the native memory associated with this Buffer, with the option of
+     * ensuring the memory is writable, and return a {@link MappedBuffer}
+     * handle to access it.
+     * <p>
+     * Each call returns an independent mapping, so a Buffer may be safely
+     * mapped by multiple threads at once, or mapped again while already
+     * mapped. The returned handle must be closed after usage, ideally using
+     * try-with-resources.
+     * <pre>{@code
+     * try (MappedBuffer mapped = buffer.mapped(false)) {
+     *     ByteBuffer data = mapped.getByteBuffer();
+     *     ...
+     * }
+     * }</pre>
+     *
+     * @param writable whether the mapping should be writable
+     * @return mapping handle, or null if the memory could not be mapped
+     */
+    public MappedBuffer mapped(boolean writable) {
+        return MappedBuffer.map(this, -1, -1, writable);
+    }
+
+    /**
+     * Map {@code length} memory blocks of this Buffer, starting at index
+     * {@code idx}, and return a {@link MappedBuffer} handle to access them. A
+     * length of -1 maps all memory blocks from idx to the end of the Buffer.
+     * <p>
+     * Each call returns an independent mapping - see {@link #mapped(boolean)}.
+     *
+     * @param idx index of the first memory block to map
+     * @param length number of memory blocks to map, or -1 for all remaining
+     * @param writable whether the mapping should be writable
+     * @return mapping handle, or null if the memory could not be mapped
+     * @throws IndexOutOfBoundsException if idx and length do not describe a
+     * valid range of memory blocks
+     */
+    public MappedBuffer mapped(int idx, int length, boolean writable) {
+        checkMemoryRange(idx, length);
+        return MappedBuffer.map(this, idx, length, writable);
+    }
+
+    /**
+     * Map each memory block of this Buffer individually, without merging, and
+     * return a {@link MappedBuffer} handle with one ByteBuffer per memory
+     * block.
+     * <p>
+     * Each call returns an independent mapping - see {@link #mapped(boolean)}.
+     *
+     * @param writable whether the mapping should be writable
+     * @return mapping handle, or null if the memory could not be mapped
+     */
+    public MappedBuffer mappedMemories(boolean writable) {
+        return MappedBuffer.mapMemories(this, writable);
+    }
+
+    private ByteBuffer legacyMap(MappedBuffer mapped) {
+        if (mapped == null) {
+            return null;
+        }
+        mapping = mapped;
+        // keep the original contract of returning null if there is no data,
+        // while still requiring unmap() to release the mapping
+        return mapped.hasData(0) ? mapped.getByteBuffer() : null;
+    }
+
+    private void checkMemoryRange(int idx, int length) {
+        int count = getMemoryCount();
+        if (idx < 0 || idx >= count || length < -1 || length == 0
+                || (length > 0 && idx + length > count)) {
+            throw new IndexOutOfBoundsException("Invalid memory range " + idx
+                    + " : " + length + " for buffer of " + count + " memory blocks");
+        }
     }
 
     /**
@@ -131,6 +344,327 @@ public class Buffer extends MiniObject {
         return GSTBUFFER_API.gst_buffer_n_memory(this);
     }
 
+    /**
+     * Get the {@link MemoryBlock} at the given index. The memory is shared
+     * with this buffer, not copied.
+     *
+     * @param idx index of the memory block
+     * @return memory block
+     * @throws IndexOutOfBoundsException if idx is not a valid index
+     */
+    public MemoryBlock getMemory(int idx) {
+        checkMemoryRange(idx, 1);
+        return GSTBUFFER_API.gst_buffer_get_memory(this, idx);
+    }
+
+    /**
+     * Append a {@link MemoryBlock} to this buffer. The buffer takes ownership
+     * of the memory, and the MemoryBlock passed in must not be used after
+     * calling this method.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param memory memory block to append
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public void appendMemory(MemoryBlock memory) {
+        checkWritable();
+        GSTBUFFER_API.gst_buffer_insert_memory(this, -1, memory);
+    }
+
+    /**
+     * Get the total size of the memory blocks in this buffer.
+     *
+     * @return total size in bytes
+     */
+    public int getSize() {
+        return GSTBUFFER_API.gst_buffer_get_size(this).intValue();
+    }
+
+    /**
+     * Create a new Buffer containing the given region of this buffer. The
+     * memory, flags, timestamps and meta are copied according to the given
+     * flags. Unless {@link BufferCopyFlags#DEEP} is specified, the memory of
+     * this buffer is shared rather than copied.
+     *
+     * @param flags the parts of the buffer to copy
+     * @param offset offset into this buffer to copy from
+     * @param size size of the region to copy, or -1 to copy to the end
+     * @return new buffer
+     * @throws IndexOutOfBoundsException if the region is not valid
+     */
+    public Buffer copyRegion(EnumSet<BufferCopyFlags> flags, int offset, int size) {
+        checkRegion(offset, size);
+        Pointer ptr = GSTBUFFER_API.ptr_gst_buffer_copy_region(this, NativeFlags.toInt(flags),
+                new NativeLong(offset), new NativeLong(size));
+        if (ptr == null) {
+            throw new IllegalStateException("Unable to copy buffer region");
+        }
+        return Natives.callerOwnsReturn(ptr, Buffer.class);
+    }
+
+    /**
+     * Create a new Buffer containing the given region of this buffer, sharing
+     * the memory and copying all metadata. This is equivalent to calling
+     * {@link #copyRegion(java.util.EnumSet, int, int)} with
+     * {@link BufferCopyFlags#all()}.
+     *
+     * @param offset offset into this buffer
+     * @param size size of the region, or -1 for the remainder of the buffer
+     * @return new buffer
+     * @throws IndexOutOfBoundsException if the region is not valid
+     */
+    public Buffer region(int offset, int size) {
+        return copyRegion(BufferCopyFlags.all(), offset, size);
+    }
+
+    /**
+     * Create a new Buffer containing the memory of this buffer followed by the
+     * memory of the given buffer. The memory is shared rather than copied, and
+     * the metadata of this buffer is kept. Neither this buffer nor the given
+     * buffer is modified.
+     *
+     * @param buffer buffer to append
+     * @return new buffer
+     */
+    public Buffer append(Buffer buffer) {
+        return Natives.callerOwnsReturn(
+                GSTBUFFER_API.ptr_gst_buffer_append(this, buffer), Buffer.class);
+    }
+
+    /**
+     * Create a new Buffer containing the memory of this buffer followed by the
+     * given region of the memory of the given buffer. The memory is shared
+     * rather than copied, and the metadata of this buffer is kept. Neither
+     * this buffer nor the given buffer is modified.
+     *
+     * @param buffer buffer to append
+     * @param offset offset into buffer to append from
+     * @param size size of region of buffer to append, or -1 to append to the
+     * end
+     * @return new buffer
+     * @throws IndexOutOfBoundsException if the region is not valid
+     */
+    public Buffer appendRegion(Buffer buffer, int offset, int size) {
+        buffer.checkRegion(offset, size);
+        return Natives.callerOwnsReturn(
+                GSTBUFFER_API.ptr_gst_buffer_append_region(this, buffer,
+                        new NativeLong(offset), new NativeLong(size)), Buffer.class);
+    }
+
+    /**
+     * Resize this buffer to the given region of its current memory, without
+     * copying the data.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param offset offset of the new start of the buffer
+     * @param size new size, or -1 for the remainder of the buffer
+     * @throws IndexOutOfBoundsException if the region is not valid
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public void resize(int offset, int size) {
+        checkRegion(offset, size);
+        checkWritable();
+        GSTBUFFER_API.gst_buffer_resize(this, new NativeLong(offset), new NativeLong(size));
+    }
+
+    private void checkRegion(int offset, int size) {
+        int bufSize = getSize();
+        if (offset < 0 || size < -1 || offset > bufSize
+                || (size > 0 && offset + size > bufSize)) {
+            throw new IndexOutOfBoundsException("Invalid region " + offset
+                    + " : " + size + " for buffer of size " + bufSize);
+        }
+    }
+
+    /**
+     * Copy bytes from the given array into this buffer at the given offset,
+     * without mapping the buffer. The data may span multiple memory blocks.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param offset offset in this buffer to start writing at
+     * @param src source data
+     * @return the number of bytes copied, which will be less than the array
+     * length if the end of the buffer is reached
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public int fill(int offset, byte[] src) {
+        return fill(offset, src, 0, src.length);
+    }
+
+    /**
+     * Copy bytes from the given array range into this buffer at the given
+     * offset, without mapping the buffer. The data may span multiple memory
+     * blocks.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param offset offset in this buffer to start writing at
+     * @param src source data
+     * @param srcOffset offset in the array to start reading from
+     * @param length number of bytes to copy
+     * @return the number of bytes copied, which will be less than length if
+     * the end of the buffer is reached
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public int fill(int offset, byte[] src, int srcOffset, int length) {
+        return fill(offset, ByteBuffer.wrap(src, srcOffset, length));
+    }
+
+    /**
+     * Copy the remaining bytes in the given {@link ByteBuffer} into this
+     * buffer at the given offset, without mapping the buffer. The data may span
+     * multiple memory blocks. The ByteBuffer may be direct or heap based. Its
+     * position is advanced by the number of bytes copied.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param offset offset in this buffer to start writing at
+     * @param src source data
+     * @return the number of bytes copied, which will be less than the
+     * remaining bytes in src if the end of the buffer is reached
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public int fill(int offset, ByteBuffer src) {
+        checkOffset(offset);
+        checkWritable();
+        int copied = GSTBUFFER_API.gst_buffer_fill(this, new NativeLong(offset),
+                src, new NativeLong(src.remaining())).intValue();
+        src.position(src.position() + copied);
+        return copied;
+    }
+
+    /**
+     * Set {@code length} bytes of this buffer, starting at the given offset,
+     * to the given value, without mapping the buffer.
+     * <p>
+     * The buffer must be writable.
+     *
+     * @param offset offset in this buffer to start writing at
+     * @param value value to set
+     * @param length number of bytes to set
+     * @return the number of bytes set, which will be less than length if the
+     * end of the buffer is reached
+     * @throws IllegalStateException if the buffer is not writable
+     */
+    public int fill(int offset, byte value, int length) {
+        checkOffset(offset);
+        checkWritable();
+        return GSTBUFFER_API.gst_buffer_memset(this, new NativeLong(offset),
+                value, new NativeLong(length)).intValue();
+    }
+
+    /**
+     * Copy bytes from this buffer at the given offset into the given array,
+     * without mapping the buffer. The data may span multiple memory blocks.
+     *
+     * @param offset offset in this buffer to start reading from
+     * @param dest destination array
+     * @return the number of bytes copied, which will be less than the array
+     * length if the end of the buffer is reached
+     */
+    public int extract(int offset, byte[] dest) {
+        return extract(offset, dest, 0, dest.length);
+    }
+
+    /**
+     * Copy bytes from this buffer at the given offset into the given array
+     * range, without mapping the buffer. The data may span multiple memory
+     * blocks.
+     *
+     * @param offset offset in this buffer to start reading from
+     * @param dest destination array
+     * @param destOffset offset in the array to start writing at
+     * @param length number of bytes to copy
+     * @return the number of bytes copied, which will be less than length if
+     * the end of the buffer is reached
+     */
+    public int extract(int offset, byte[] dest, int destOffset, int length) {
+        return extract(offset, ByteBuffer.wrap(dest, destOffset, length));
+    }
+
+    /**
+     * Copy bytes from this buffer at the given offset into the remaining space
+     * of the given {@link ByteBuffer}, without mapping the buffer. The data may
+     * span multiple memory blocks. The ByteBuffer may be direct or heap based.
+     * Its position is advanced by the number of bytes copied.
+     *
+     * @param offset offset in this buffer to start reading from
+     * @param dest destination
+     * @return the number of bytes copied, which will be less than the
+     * remaining space in dest if the end of the buffer is reached
+     */
+    public int extract(int offset, ByteBuffer dest) {
+        checkOffset(offset);
+        int copied = GSTBUFFER_API.gst_buffer_extract(this, new NativeLong(offset),
+                dest, new NativeLong(dest.remaining())).intValue();
+        dest.position(dest.position() + copied);
+        return copied;
+    }
+
+    /**
+     * Compare bytes in this buffer at the given offset with the given array,
+     * without mapping the buffer. The data may span multiple memory blocks.
+     *
+     * @param offset offset in this buffer to start comparing at
+     * @param data data to compare
+     * @return 0 if the bytes are equal, a negative or positive value as
+     * memcmp(), or a non-zero value if the range extends past the end of the
+     * buffer
+     */
+    public int compare(int offset, byte[] data) {
+        return compare(offset, data, 0, data.length);
+    }
+
+    /**
+     * Compare bytes in this buffer at the given offset with the given array
+     * range, without mapping the buffer. The data may span multiple memory
+     * blocks.
+     *
+     * @param offset offset in this buffer to start comparing at
+     * @param data data to compare
+     * @param dataOffset offset in the array of the data to compare
+     * @param length number of bytes to compare
+     * @return 0 if the bytes are equal, a negative or positive value as
+     * memcmp(), or a non-zero value if the range extends past the end of the
+     * buffer
+     */
+    public int compare(int offset, byte[] data, int dataOffset, int length) {
+        return compare(offset, ByteBuffer.wrap(data, dataOffset, length));
+    }
+
+    /**
+     * Compare bytes in this buffer at the given offset with the remaining
+     * bytes in the given {@link ByteBuffer}, without mapping the buffer. The
+     * data may span multiple memory blocks. The ByteBuffer may be direct or
+     * heap based. Its position is not changed.
+     *
+     * @param offset offset in this buffer to start comparing at
+     * @param data data to compare
+     * @return 0 if the bytes are equal, a negative or positive value as
+     * memcmp(), or a non-zero value if the range extends past the end of the
+     * buffer
+     */
+    public int compare(int offset, ByteBuffer data) {
+        checkOffset(offset);
+        return GSTBUFFER_API.gst_buffer_memcmp(this, new NativeLong(offset),
+                data, new NativeLong(data.remaining()));
+    }
+
+    private void checkOffset(int offset) {
+        if (offset < 0) {
+            throw new IndexOutOfBoundsException("Invalid offset " + offset);
+        }
+    }
+
+    private void checkWritable() {
+        if (!isWritable()) {
+            throw new IllegalStateException("Buffer is not writable");
+        }
+    }
+
     /**
      * Gets the timestamps of this buffer. The buffer DTS refers to the
      * timestamp when the buffer should be decoded and is usually monotonically
@@ -140,7 +674,7 @@ public class Buffer extends MiniObject {
      * when the timestamp is not known or relevant.
      */
     public long getDecodeTimestamp() {
-        return (long) this.struct.readField("dts");
+        return getRawPointer().getLong(DTS_OFFSET);
     }
 
     /**
@@ -150,7 +684,7 @@ public class Buffer extends MiniObject {
      * {@link ClockTime#NONE} when the timestamp is not known or relevant.
      */
     public void setDecodeTimestamp(long val) {
-        this.struct.writeField("dts", val);
+        getRawPointer().setLong(DTS_OFFSET, val);
     }
 
     /**
@@ -162,7 +696,7 @@ public class Buffer extends MiniObject {
      * when the timestamp is not known or relevant.
      */
     public long getPresentationTimestamp() {
-        return (long) this.struct.readField("pts");
+        return getRawPointer().getLong(PTS_OFFSET);
     }
 
     /**
@@ -172,7 +706,7 @@ public class Buffer extends MiniObject {
      * {@link ClockTime#NONE} when the timestamp is not known or relevant.
      */
     public void setPresentationTimestamp(long val) {
-        this.struct.writeField("pts", val);
+        getRawPointer().setLong(PTS_OFFSET, val);
     }
 
     /**
@@ -182,7 +716,7 @@ public class Buffer extends MiniObject {
      * when the timestamp is not known or relevant.
      */
     public long getDuration() {
-        return (long) this.struct.readField("duration");
+        return getRawPointer().getLong(DURATION_OFFSET);
     }
 
     /**
@@ -192,7 +726,7 @@ public class Buffer extends MiniObject {
      * {@link ClockTime#NONE} when the timestamp is not known or relevant.
      */
     public void setDuration(long val) {
-        this.struct.writeField("duration", val);
+        getRawPointer().setLong(DURATION_OFFSET, val);
     }
 
     /**
@@ -204,7 +738,7 @@ public class Buffer extends MiniObject {
      * data this is the byte offset of the first byte in this buffer.
      */
     public long getOffset() {
-        return (Long) this.struct.readField("offset");
+        return getRawPointer().getLong(OFFSET_OFFSET);
     }
 
     /**
@@ -216,7 +750,7 @@ public class Buffer extends MiniObject {
      * data this is the byte offset of the first byte in this buffer.
      */
     public void setOffset(long val) {
-        this.struct.writeField("offset", val);
+        getRawPointer().setLong(OFFSET_OFFSET, val);
     }
 
     /**
@@ -228,7 +762,7 @@ public class Buffer extends MiniObject {
      * data this is the byte offset of the first byte in this buffer.
      */
     public long getOffsetEnd() {
-        return (Long) this.struct.readField("offset_end");
+        return getRawPointer().getLong(OFFSET_END_OFFSET);
     }
 
     /**
@@ -240,7 +774,7 @@ public class Buffer extends MiniObject {
      * data this is the byte offset of the first byte in this buffer.
      */
     public void setOffsetEnd(long val) {
-        this.struct.writeField("offset_end", val);
+        getRawPointer().setLong(OFFSET_END_OFFSET, val);
     }
 
     /**
@@ -257,6 +791,28 @@ public class Buffer extends MiniObject {
         return NativeFlags.fromInt(BufferFlags.class, nativeInt);
     }
 
+    /**
+     * Get the GstBufferFlags describing this buffer as an int bit mask of
+     * {@link BufferFlags} values. Unlike {@link #getFlags()} this method reads
+     * the flags directly from the native buffer without allocation.
+     *
+     * @return native flags value
+     */
+    public int getFlagsValue() {
+        return getRawPointer().getInt(FLAGS_OFFSET);
+    }
+
+    /**
+     * Check whether the given flag is set on this buffer. This method reads
+     * the flags directly from the native buffer without allocation.
+     *
+     * @param flag buffer flag
+     * @return true if the flag is set
+     */
+    public boolean hasFlag(BufferFlags flag) {
+        return (getFlagsValue() & flag.intValue()) != 0;
+    }
+
     /**
      * Get the metadata for api on buffer. When there is no such metadata, NULL
      * is returned.
@@ -353,6 +909,36 @@ public class Buffer extends MiniObject {
         return GstBufferAPI.GSTBUFFER_API.gst_buffer_unset_flags(this, NativeFlags.toInt(flags));
     }
 
+    /**
+     * Keeps ByteBuffers wrapped by {@link #wrap(java.nio.ByteBuffer, java.util.function.Consumer)
+     * } reachable until GStreamer releases the memory.
+     */
+    private static final class WrappedData {
+
+        private static final Logger LOG = Logger.getLogger(Buffer.class.getName());
+        private static final CallbackRegistry<WrappedData> REGISTRY
+                = new CallbackRegistry<>("GstBufferRelease", WrappedData::release);
+
+        private final ByteBuffer data;
+        private final Consumer<ByteBuffer> release;
+
+        private WrappedData(ByteBuffer data, Consumer<ByteBuffer> release) {
+            this.data = data;
+            this.release = release;
+        }
+
+        private void release() {
+            if (release != null) {
+                try {
+                    release.accept(data);
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by buffer release callback", t);
+                }
+            }
+        }
+
+    }
+
     private static class MetaIterator implements Iterator<Meta> {
 
         private final PointerByReference state;
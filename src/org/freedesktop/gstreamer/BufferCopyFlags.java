@@ -0,0 +1,98 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import java.util.EnumSet;
+import org.freedesktop.gstreamer.glib.NativeFlags;
+
+/**
+ * A set of flags that can be provided to
+ * {@link Buffer#copyRegion(java.util.EnumSet, int, int)} to control which
+ * parts of a {@link Buffer} are copied.
+ */
+public enum BufferCopyFlags implements NativeFlags<BufferCopyFlags> {
+
+    /**
+     * Flag indicating that buffer flags should be copied.
+     */
+    FLAGS(1 << 0),
+
+    /**
+     * Flag indicating that buffer pts, dts, duration, offset and offset_end
+     * should be copied.
+     */
+    TIMESTAMPS(1 << 1),
+
+    /**
+     * Flag indicating that buffer meta should be copied.
+     */
+    META(1 << 2),
+
+    /**
+     * Flag indicating that buffer memory should be reffed and appended to
+     * already existing memory. Unless the memory is marked as NO_SHARE, no
+     * actual copy of the memory is made but it is simply reffed. Add
+     * {@link #DEEP} to force a real copy.
+     */
+    MEMORY(1 << 3),
+
+    /**
+     * Flag indicating that buffer memory should be merged.
+     */
+    MERGE(1 << 4),
+
+    /**
+     * Flag indicating that memory should always be copied instead of reffed.
+     */
+    DEEP(1 << 5);
+
+    private final int value;
+
+    private BufferCopyFlags(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the integer value of the enum.
+     *
+     * @return The integer value for this enum.
+     */
+    @Override
+    public final int intValue() {
+        return value;
+    }
+
+    /**
+     * Flags to copy all metadata - {@link #FLAGS}, {@link #TIMESTAMPS} and
+     * {@link #META}.
+     *
+     * @return new set of flags
+     */
+    public static EnumSet<BufferCopyFlags> metadata() {
+        return EnumSet.of(FLAGS, TIMESTAMPS, META);
+    }
+
+    /**
+     * Flags to copy all metadata and share the memory - {@link #FLAGS},
+     * {@link #TIMESTAMPS}, {@link #META} and {@link #MEMORY}.
+     *
+     * @return new set of flags
+     */
+    public static EnumSet<BufferCopyFlags> all() {
+        return EnumSet.of(FLAGS, TIMESTAMPS, META, MEMORY);
+    }
+
+}
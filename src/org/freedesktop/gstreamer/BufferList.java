@@ -0,0 +1,163 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import org.freedesktop.gstreamer.glib.Natives;
+
+import static org.freedesktop.gstreamer.lowlevel.GstBufferListAPI.GSTBUFFERLIST_API;
+
+/**
+ * Buffer lists are an object containing a list of buffers. Buffer lists can
+ * be pushed through a pipeline, or pulled from an appsink, as a single unit,
+ * which is much cheaper than handling a large number of small buffers (eg.
+ * RTP packets) one by one.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/gstreamer/gstbufferlist.html"
+ * >https://gstreamer.freedesktop.org/documentation/gstreamer/gstbufferlist.html</a>
+ */
+public class BufferList extends MiniObject {
+
+    public static final String GTYPE_NAME = "GstBufferList";
+
+    /**
+     * Creates a new, empty BufferList.
+     */
+    public BufferList() {
+        this(Natives.initializer(GSTBUFFERLIST_API.ptr_gst_buffer_list_new()));
+    }
+
+    /**
+     * Creates a new, empty BufferList with space pre-allocated for the given
+     * number of buffers.
+     *
+     * @param size initial size of the list
+     */
+    public BufferList(int size) {
+        this(Natives.initializer(GSTBUFFERLIST_API.ptr_gst_buffer_list_new_sized(size)));
+    }
+
+    BufferList(Initializer init) {
+        super(init);
+    }
+
+    /**
+     * Returns the number of buffers in the list.
+     *
+     * @return the number of buffers
+     */
+    public int size() {
+        return GSTBUFFERLIST_API.gst_buffer_list_length(this);
+    }
+
+    /**
+     * Get the {@link Buffer} at the given index.
+     * <b>The buffer remains valid as long as the list is valid and the buffer
+     * is not removed from the list.</b>
+     * If you need to hold on to it for longer than that, take a ref to the
+     * buffer.
+     *
+     * @param idx the index
+     * @return the buffer at idx
+     * @throws IndexOutOfBoundsException if idx is not a valid index
+     */
+    public Buffer get(int idx) {
+        checkIndex(idx, size());
+        return GSTBUFFERLIST_API.gst_buffer_list_get(this, idx);
+    }
+
+    /**
+     * Append a {@link Buffer} to the end of the list. The list takes ownership
+     * of the buffer, and the Buffer object passed in must not be used after
+     * calling this method.
+     * <p>
+     * This list must be writable.
+     *
+     * @param buffer the buffer to add
+     * @throws IllegalStateException if the list is not writable
+     */
+    public void add(Buffer buffer) {
+        checkWritable();
+        GSTBUFFERLIST_API.gst_buffer_list_insert(this, -1, buffer);
+    }
+
+    /**
+     * Insert a {@link Buffer} at the given index in the list. The list takes
+     * ownership of the buffer, and the Buffer object passed in must not be
+     * used after calling this method.
+     * <p>
+     * This list must be writable.
+     *
+     * @param idx the index, or -1 to append
+     * @param buffer the buffer to insert
+     * @throws IndexOutOfBoundsException if idx is not a valid index
+     * @throws IllegalStateException if the list is not writable
+     */
+    public void insert(int idx, Buffer buffer) {
+        checkWritable();
+        if (idx != -1) {
+            checkIndex(idx, size() + 1);
+        }
+        GSTBUFFERLIST_API.gst_buffer_list_insert(this, idx, buffer);
+    }
+
+    /**
+     * Remove {@code length} buffers starting from {@code idx} in the list.
+     * <p>
+     * This list must be writable.
+     *
+     * @param idx the index of the first buffer to remove
+     * @param length the number of buffers to remove
+     * @throws IndexOutOfBoundsException if the range is not valid
+     * @throws IllegalStateException if the list is not writable
+     */
+    public void remove(int idx, int length) {
+        checkWritable();
+        int size = size();
+        if (idx < 0 || length < 0 || idx + length > size) {
+            throw new IndexOutOfBoundsException("Invalid range " + idx + " : "
+                    + length + " for list of size " + size);
+        }
+        GSTBUFFERLIST_API.gst_buffer_list_remove(this, idx, length);
+    }
+
+    /**
+     * Calculates the size of the data contained in the list by adding the
+     * size of all buffers.
+     * <p>
+     * Since GStreamer 1.14
+     *
+     * @return the size of the data contained in the list in bytes
+     */
+    @Gst.Since(minor = 14)
+    public long calculateSize() {
+        Gst.checkVersion(1, 14);
+        return GSTBUFFERLIST_API.gst_buffer_list_calculate_size(this).longValue();
+    }
+
+    private void checkWritable() {
+        if (!isWritable()) {
+            throw new IllegalStateException("BufferList is not writable");
+        }
+    }
+
+    private static void checkIndex(int idx, int size) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("Index " + idx + " for list of size " + size);
+        }
+    }
+
+}
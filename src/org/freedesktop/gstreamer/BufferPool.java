@@ -18,11 +18,16 @@
  */
 package org.freedesktop.gstreamer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import org.freedesktop.gstreamer.lowlevel.GstBufferPoolAPI;
 
 import com.sun.jna.Pointer;
 import org.freedesktop.gstreamer.glib.Natives;
 
+import static org.freedesktop.gstreamer.lowlevel.GstBufferPoolAPI.GSTBUFFERPOOL_API;
+
 /**
  * A BufferPool is an object that can be used to pre-allocate and recycle
  * buffers of the same size and with the same properties.
@@ -35,11 +40,21 @@ public class BufferPool extends GstObject {
 
     public static final String GTYPE_NAME = "GstBufferPool";
 
+    private static final GstBufferPoolAPI.AcquireParamsStruct DONTWAIT;
+
+    static {
+        DONTWAIT = new GstBufferPoolAPI.AcquireParamsStruct();
+        DONTWAIT.flags = GstBufferPoolAPI.GST_BUFFER_POOL_ACQUIRE_FLAG_DONTWAIT;
+        DONTWAIT.write();
+    }
+
+    private final Counters stats = new Counters();
+
     /**
      * Creates a new instance of BufferPool
      */
     public BufferPool() {
-        this(Natives.initializer(GstBufferPoolAPI.GSTBUFFERPOOL_API.ptr_gst_buffer_pool_new()));
+        this(Natives.initializer(GSTBUFFERPOOL_API.ptr_gst_buffer_pool_new()));
     }
     
     /**
@@ -52,15 +67,20 @@ public class BufferPool extends GstObject {
 
     /**
      * Configure the BufferPool with the given parameters.
+     * <p>
+     * The pool must be inactive when it is configured.
      * 
      * @param caps the {@link Caps} for the buffers
      * @param size the size of each buffer, not including prefix and padding
      * @param min_buffers the minimum amount of buffers to allocate
      * @param max_buffers the maximum amount of buffers to allocate or 0 for unlimited
+     * @throws IllegalStateException if the pool is active, or rejects the
+     * configuration
      */
     public void setParams(Caps caps, int size, int min_buffers, int max_buffers) {
-    	Structure config = GstBufferPoolAPI.GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
-    	GstBufferPoolAPI.GSTBUFFERPOOL_API.gst_buffer_pool_config_set_params(config, caps, size, min_buffers, max_buffers);
+    	Structure config = GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
+    	GSTBUFFERPOOL_API.gst_buffer_pool_config_set_params(config, caps, size, min_buffers, max_buffers);
+        setConfig(config);
     }
 
     /**
@@ -69,10 +89,289 @@ public class BufferPool extends GstObject {
      * @return Caps configured on the BufferPool
      */
     public Caps getCaps() {
-    	Structure config = GstBufferPoolAPI.GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
+    	Structure config = GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
     	Pointer[] ptr = new Pointer[1];
-    	GstBufferPoolAPI.GSTBUFFERPOOL_API.gst_buffer_pool_config_get_params(config, ptr, null, null, null);
-    	return new Caps(Natives.initializer(ptr[0], false, true));
+    	GSTBUFFERPOOL_API.gst_buffer_pool_config_get_params(config, ptr, null, null, null);
+        return ptr[0] == null ? null : new Caps(Natives.initializer(ptr[0], true, true));
+    }
+
+    /**
+     * Query the size of each buffer configured on the BufferPool.
+     *
+     * @return buffer size
+     */
+    public int getSize() {
+        return getParam(0);
+    }
+
+    /**
+     * Query the minimum amount of buffers configured on the BufferPool.
+     *
+     * @return minimum amount of buffers
+     */
+    public int getMinBuffers() {
+        return getParam(1);
+    }
+
+    /**
+     * Query the maximum amount of buffers configured on the BufferPool, or 0
+     * for unlimited.
+     *
+     * @return maximum amount of buffers
+     */
+    public int getMaxBuffers() {
+        return getParam(2);
+    }
+
+    /**
+     * Enable an option in the configuration of the BufferPool, eg.
+     * {@code "GstBufferPoolOptionVideoMeta"}. Options that are not supported
+     * by the pool, see {@link #hasOption(java.lang.String)}, are ignored by
+     * the pool.
+     * <p>
+     * The pool must be inactive when it is configured.
+     *
+     * @param option option to enable
+     * @throws IllegalStateException if the pool is active, or rejects the
+     * configuration
+     */
+    public void addOption(String option) {
+        Structure config = GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
+        GSTBUFFERPOOL_API.gst_buffer_pool_config_add_option(config, option);
+        setConfig(config);
+    }
+
+    /**
+     * Query the options enabled in the configuration of the BufferPool.
+     *
+     * @return list of enabled options
+     */
+    public List<String> getOptions() {
+        Structure config = GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
+        int count = GSTBUFFERPOOL_API.gst_buffer_pool_config_n_options(config);
+        List<String> options = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            options.add(GSTBUFFERPOOL_API.gst_buffer_pool_config_get_option(config, i));
+        }
+        return options;
+    }
+
+    /**
+     * Check if the BufferPool supports the given option.
+     *
+     * @param option option to check
+     * @return true if the option is supported
+     */
+    public boolean hasOption(String option) {
+        return GSTBUFFERPOOL_API.gst_buffer_pool_has_option(this, option);
+    }
+
+    /**
+     * Activate or deactivate the BufferPool. Activating the pool allocates
+     * the minimum amount of buffers. Deactivating the pool frees all buffers
+     * once they have been returned to the pool.
+     * <p>
+     * The pool must be configured, eg. using
+     * {@link #setParams(org.freedesktop.gstreamer.Caps, int, int, int)}
+     * before it is activated.
+     *
+     * @param active new active state
+     * @return true if the state of the pool was changed
+     */
+    public boolean setActive(boolean active) {
+        return GSTBUFFERPOOL_API.gst_buffer_pool_set_active(this, active);
+    }
+
+    /**
+     * Check if the BufferPool is active.
+     *
+     * @return true if active
+     */
+    public boolean isActive() {
+        return GSTBUFFERPOOL_API.gst_buffer_pool_is_active(this);
+    }
+
+    /**
+     * Acquire a {@link Buffer} from the pool, waiting for a buffer to be
+     * returned if the maximum amount of buffers are in use.
+     * <p>
+     * The buffer is returned to the pool when it is no longer referenced, eg.
+     * after it has been pushed downstream and consumed, or after
+     * {@link #disposeBuffer(org.freedesktop.gstreamer.Buffer)} or
+     * {@link Buffer#dispose()} has been called.
+     *
+     * @return buffer
+     * @throws IllegalStateException if the pool is inactive or flushing, or
+     * the buffer could not be allocated
+     */
+    public Buffer acquireBuffer() {
+        return acquire(null);
+    }
+
+    /**
+     * Acquire a {@link Buffer} from the pool without waiting. Returns null if
+     * the maximum amount of buffers are in use.
+     *
+     * @return buffer or null
+     * @throws IllegalStateException if the pool is inactive or flushing, or
+     * the buffer could not be allocated
+     * @see #acquireBuffer()
+     */
+    public Buffer tryAcquireBuffer() {
+        return acquire(DONTWAIT.getPointer());
+    }
+
+    /**
+     * Dispose a {@link Buffer} acquired from this pool, and count it as
+     * disposed in {@link #getStats()}. This is equivalent to calling
+     * {@link Buffer#dispose()}, which returns the buffer to the pool when
+     * there are no other references to it. The Buffer must not be used after
+     * calling this method.
+     * <p>
+     * Unlike {@code gst_buffer_pool_release_buffer()}, this does not return the
+     * buffer to the pool directly.
+     *
+     * @param buffer buffer to dispose
+     */
+    public void disposeBuffer(Buffer buffer) {
+        buffer.dispose();
+        stats.disposed.increment();
+    }
+
+    /**
+     * Get a snapshot of the acquire and dispose statistics of the BufferPool.
+     * <p>
+     * The statistics are counted on the Java side, and only cover calls made
+     * through this BufferPool object. Buffers returned to the pool by native
+     * code, eg. after being pushed downstream, are not counted as disposed.
+     *
+     * @return statistics
+     */
+    public Stats getStats() {
+        return new Stats(stats.acquired.sum(),
+                stats.disposed.sum(),
+                stats.wouldBlock.sum(),
+                stats.failed.sum());
+    }
+
+    private Buffer acquire(Pointer params) {
+        Pointer[] ptr = new Pointer[1];
+        FlowReturn ret = GSTBUFFERPOOL_API.gst_buffer_pool_acquire_buffer(this, ptr, params);
+        if (ret == FlowReturn.OK) {
+            stats.acquired.increment();
+            return Natives.callerOwnsReturn(ptr[0], Buffer.class);
+        } else if (ret == FlowReturn.EOS && params != null) {
+            stats.wouldBlock.increment();
+            return null;
+        } else {
+            stats.failed.increment();
+            throw new IllegalStateException("Unable to acquire buffer : " + ret);
+        }
+    }
+
+    private int getParam(int index) {
+        Structure config = GSTBUFFERPOOL_API.gst_buffer_pool_get_config(this);
+        int[][] params = {{0}, {0}, {0}};
+        GSTBUFFERPOOL_API.gst_buffer_pool_config_get_params(config, null,
+                params[0], params[1], params[2]);
+        return params[index][0];
+    }
+
+    private void setConfig(Structure config) {
+        if (isActive()) {
+            config.dispose();
+            throw new IllegalStateException("BufferPool is active");
+        }
+        if (!GSTBUFFERPOOL_API.gst_buffer_pool_set_config(this, config)) {
+            throw new IllegalStateException("BufferPool rejected configuration");
+        }
+    }
+
+    /**
+     * A snapshot of the acquire and dispose statistics of a BufferPool. The
+     * statistics are counted on the Java side - see
+     * {@link BufferPool#getStats()}.
+     */
+    public static final class Stats {
+
+        private final long acquired;
+        private final long disposed;
+        private final long wouldBlock;
+        private final long failed;
+
+        private Stats(long acquired, long disposed, long wouldBlock, long failed) {
+            this.acquired = acquired;
+            this.disposed = disposed;
+            this.wouldBlock = wouldBlock;
+            this.failed = failed;
+        }
+
+        /**
+         * The number of buffers successfully acquired.
+         *
+         * @return acquired count
+         */
+        public long getAcquired() {
+            return acquired;
+        }
+
+        /**
+         * The number of buffers disposed via
+         * {@link BufferPool#disposeBuffer(org.freedesktop.gstreamer.Buffer)}.
+         *
+         * @return disposed count
+         */
+        public long getDisposed() {
+            return disposed;
+        }
+
+        /**
+         * The number of acquired buffers not yet disposed via
+         * {@link BufferPool#disposeBuffer(org.freedesktop.gstreamer.Buffer)}.
+         * This is only an upper bound on the buffers in use, as buffers pushed
+         * downstream return to the pool without being counted.
+         *
+         * @return acquired count less disposed count
+         */
+        public long getOutstanding() {
+            return acquired - disposed;
+        }
+
+        /**
+         * The number of non-blocking acquires that returned no buffer because
+         * all buffers were in use.
+         *
+         * @return would block count
+         */
+        public long getWouldBlock() {
+            return wouldBlock;
+        }
+
+        /**
+         * The number of acquires that failed, eg. because the pool was
+         * inactive.
+         *
+         * @return failed count
+         */
+        public long getFailed() {
+            return failed;
+        }
+
+        @Override
+        public String toString() {
+            return "BufferPool.Stats{acquired=" + acquired + ", disposed=" + disposed
+                    + ", wouldBlock=" + wouldBlock + ", failed=" + failed + "}";
+        }
+
+    }
+
+    private static final class Counters {
+
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder disposed = new LongAdder();
+        private final LongAdder wouldBlock = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
     }
 
 }
@@ -20,9 +20,18 @@
  */
 package org.freedesktop.gstreamer;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Locale;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Queue;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -36,11 +45,13 @@ import com.sun.jna.ptr.PointerByReference;
 import org.freedesktop.gstreamer.glib.NativeEnum;
 
 import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.BlockingCalls;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GErrorStruct;
 import org.freedesktop.gstreamer.lowlevel.GstBusAPI;
 import org.freedesktop.gstreamer.lowlevel.GstBusAPI.BusCallback;
 import org.freedesktop.gstreamer.lowlevel.GstBusPtr;
 import org.freedesktop.gstreamer.lowlevel.GstMessagePtr;
+import org.freedesktop.gstreamer.lowlevel.GstObjectPtr;
 import org.freedesktop.gstreamer.message.Message;
 import org.freedesktop.gstreamer.message.MessageType;
 
@@ -48,6 +59,7 @@ import static org.freedesktop.gstreamer.lowlevel.GlibAPI.GLIB_API;
 import static org.freedesktop.gstreamer.lowlevel.GstBusAPI.GSTBUS_API;
 import static org.freedesktop.gstreamer.lowlevel.GstMessageAPI.GSTMESSAGE_API;
 import static org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.GSTMINIOBJECT_API;
+import static org.freedesktop.gstreamer.lowlevel.GstStructureAPI.GSTSTRUCTURE_API;
 
 /**
  * The {@link Bus} is an object responsible for delivering {@link Message}s in a
@@ -81,10 +93,16 @@ public class Bus extends GstObject {
     private static final SyncCallback SYNC_CALLBACK = new SyncCallback();
 
     private volatile BusSyncHandler syncHandler = null;
+    private volatile int syncHandlerMask = MessageType.ANY.intValue();
+    private volatile int pullMask = 0;
+    private volatile int coalesceMask = 0;
+    private final SerialExecutor dispatcher = new SerialExecutor();
 
     private final Object lock = new Object();
-    private final List<MessageProxy<?>> messageProxies = new CopyOnWriteArrayList<>();
+    private volatile DispatchTable dispatchTable = DispatchTable.EMPTY;
+    private final ConcurrentMap<CoalesceKey, GstMessagePtr> coalesced = new ConcurrentHashMap<>();
     private boolean watchAdded = false;
+    private boolean watchRef = false;
 
     /**
      * This constructor is used internally by gstreamer-java
@@ -469,6 +487,106 @@ public class Bus extends GstObject {
         return GSTBUS_API.gst_bus_post(this, message);
     }
 
+    /**
+     * Set the message types to be queued on this Bus for retrieval with
+     * {@link #pop()}, {@link #timedPop(long, java.util.concurrent.TimeUnit)}
+     * and related methods, rather than being dispatched to listeners.
+     * <p>
+     * By default no messages are queued, and all messages are handled by the
+     * sync handler and listeners. Messages of the given types are still passed
+     * to the sync handler first, but are not dispatched to listeners. Queued
+     * messages are held until retrieved, or until the bus is flushed, so an
+     * application enabling this must keep popping messages.
+     * <p>
+     * While any message types are queued, the bus signal watch is removed,
+     * so that queued messages are not consumed from the default GLib main
+     * context. The "message" GObject signal of the bus is not emitted in the
+     * meantime. Listeners connected to this Bus are not affected.
+     *
+     * @param types the message types to queue, or an empty set to queue none
+     */
+    public void setPullMessageTypes(EnumSet<MessageType> types) {
+        synchronized (lock) {
+            pullMask = toMask(types);
+            if (watchAdded || watchRef) {
+                addWatch();
+            }
+        }
+    }
+
+    /**
+     * Get the next queued message on the bus, without removing it, or null if
+     * no message is queued.
+     * <p>
+     * Only message types enabled with {@link #setPullMessageTypes} are
+     * queued.
+     *
+     * @return next message, or null
+     */
+    public Message peek() {
+        return GSTBUS_API.gst_bus_peek(this);
+    }
+
+    /**
+     * Remove and return the next queued message on the bus, or null if no
+     * message is queued. Does not wait.
+     * <p>
+     * Only message types enabled with {@link #setPullMessageTypes} are
+     * queued.
+     *
+     * @return next message, or null
+     */
+    public Message pop() {
+        return GSTBUS_API.gst_bus_pop(this);
+    }
+
+    /**
+     * Remove and return the next queued message on the bus, waiting at most
+     * the given timeout for one to be posted. A negative timeout waits
+     * indefinitely.
+     * <p>
+     * The message is returned on the calling thread, without involving the
+     * signal watch, the GLib main context or the dispatch executor. Only
+     * message types enabled with {@link #setPullMessageTypes} are queued.
+     *
+     * @param timeout timeout to wait, or negative to wait indefinitely
+     * @param unit unit of timeout
+     * @return next message, or null if the timeout expired or the bus is
+     * flushing
+     */
+    public Message timedPop(long timeout, TimeUnit unit) {
+        long clockTime = toClockTime(timeout, unit);
+        if (clockTime == 0 || !BlockingCalls.shouldOffload()) {
+            return GSTBUS_API.gst_bus_timed_pop(this, clockTime);
+        }
+        return BlockingCalls.invokeTimed(t -> GSTBUS_API.gst_bus_timed_pop(this, t),
+                clockTime, Objects::isNull);
+    }
+
+    /**
+     * Remove and return the next queued message of the given types on the
+     * bus, waiting at most the given timeout for one to be posted. A negative
+     * timeout waits indefinitely. Queued messages of other types are
+     * discarded.
+     * <p>
+     * See {@link #timedPop(long, java.util.concurrent.TimeUnit)}.
+     *
+     * @param timeout timeout to wait, or negative to wait indefinitely
+     * @param unit unit of timeout
+     * @param types the message types to return
+     * @return next message of the given types, or null if the timeout expired
+     * or the bus is flushing
+     */
+    public Message timedPopFiltered(long timeout, TimeUnit unit, EnumSet<MessageType> types) {
+        long clockTime = toClockTime(timeout, unit);
+        int mask = toMask(types);
+        if (clockTime == 0 || !BlockingCalls.shouldOffload()) {
+            return GSTBUS_API.gst_bus_timed_pop_filtered(this, clockTime, mask);
+        }
+        return BlockingCalls.invokeTimed(t -> GSTBUS_API.gst_bus_timed_pop_filtered(this, t, mask),
+                clockTime, Objects::isNull);
+    }
+
     /**
      * Sets the synchronous handler (message listener) on the bus. The handler
      * will be called every time a new message is posted on the bus. Note that
@@ -478,7 +596,9 @@ public class Bus extends GstObject {
      * <p>
      * Only one handler may be attached to the bus at any one time. An attached
      * sync handler forces creation of {@link Message} objects for all messages
-     * on the bus, so the handler should be removed if no longer required.
+     * on the bus, so the handler should be removed if no longer required, or
+     * restricted to the message types of interest with
+     * {@link #setSyncHandler(org.freedesktop.gstreamer.BusSyncHandler, java.util.EnumSet)}.
      * <p>
      * A single native sync handler is used at all times, with synchronous and
      * asynchronous dispatch handled on the Java side, so the bindings do not
@@ -488,6 +608,21 @@ public class Bus extends GstObject {
      * @param handler bus sync handler, or null to remove
      */
     public void setSyncHandler(BusSyncHandler handler) {
+        setSyncHandler(handler, EnumSet.of(MessageType.ANY));
+    }
+
+    /**
+     * Sets the synchronous handler (message listener) on the bus, only to be
+     * called for messages of the given types. Other messages are passed on to
+     * the asynchronous listeners without creating {@link Message} objects.
+     * <p>
+     * See {@link #setSyncHandler(org.freedesktop.gstreamer.BusSyncHandler)}.
+     *
+     * @param handler bus sync handler, or null to remove
+     * @param types the message types the handler is interested in
+     */
+    public void setSyncHandler(BusSyncHandler handler, EnumSet<MessageType> types) {
+        syncHandlerMask = toMask(types);
         syncHandler = handler;
     }
 
@@ -509,6 +644,49 @@ public class Bus extends GstObject {
         return syncHandler;
     }
 
+    /**
+     * Set the {@link Executor} used to dispatch messages to the listeners of
+     * this Bus. By default, messages from all buses are dispatched using
+     * {@link Gst#getExecutor()}.
+     * <p>
+     * Messages are always dispatched in the order they were posted, even if
+     * the executor is multi-threaded, so a shared thread pool can be used to
+     * dispatch the messages of many buses in parallel without one busy bus
+     * delaying the others. An executor that runs tasks directly, such as
+     * {@code Runnable::run}, dispatches messages on the thread that posted
+     * them.
+     * <p>
+     * The executor may be changed at any time without affecting the order of
+     * dispatch. Messages already pending are dispatched before later ones,
+     * and dispatch moves to the new executor from the next batch of
+     * messages.
+     *
+     * @param executor dispatch executor, or null for the default
+     */
+    public void setExecutor(Executor executor) {
+        dispatcher.delegate = executor;
+    }
+
+    /**
+     * Set the message types for which listeners only receive the latest
+     * pending message. This is useful for high-frequency messages such as
+     * {@link MessageType#BUFFERING}, {@link MessageType#QOS} or element
+     * messages from level or spectrum analysers, bounding listener work to
+     * the speed of dispatch rather than the rate messages are posted.
+     * <p>
+     * Messages are coalesced by type, source object and structure name. While
+     * a message is waiting to be dispatched, a newer message with the same key
+     * replaces it, and the superseded message is released without being
+     * dispatched. The newest message is dispatched in the position of the
+     * first message it replaced.
+     *
+     * @param types the message types to coalesce, or an empty set to
+     * dispatch all messages
+     */
+    public void setCoalescedMessageTypes(EnumSet<MessageType> types) {
+        coalesceMask = toMask(types);
+    }
+
     /**
      * Connects to a signal.
      *
@@ -561,7 +739,7 @@ public class Bus extends GstObject {
             Class<T> listenerClass,
             T listener,
             BusCallback callback) {
-        messageProxies.add(new MessageProxy(type, listenerClass, listener, callback));
+        dispatchTable = dispatchTable.with(new MessageProxy<>(type, listenerClass, listener, callback));
         addWatch();
     }
 
@@ -575,12 +753,25 @@ public class Bus extends GstObject {
     }
 
     private synchronized <T> void removeMessageProxy(Class<T> listenerClass, T listener) {
-        messageProxies.removeIf(p -> p.listener == listener);
-        if (messageProxies.isEmpty()) {
+        dispatchTable = dispatchTable.without(listener);
+        if (dispatchTable.isEmpty()) {
             removeWatch();
         }
     }
 
+    private static int toMask(EnumSet<MessageType> types) {
+        int mask = 0;
+        for (MessageType type : types) {
+            mask |= type.intValue();
+        }
+        return mask;
+    }
+
+    private static long toClockTime(long timeout, TimeUnit unit) {
+        // TimeUnit saturates at Long.MAX_VALUE, so never GST_CLOCK_TIME_NONE
+        return timeout < 0 ? ClockTime.NONE : unit.toNanos(timeout);
+    }
+
     /**
      * Dispatches a message to all interested listeners.
      * <p>
@@ -591,16 +782,50 @@ public class Bus extends GstObject {
      *
      */
     private void dispatchMessage(GstBusPtr busPtr, GstMessagePtr msgPtr) {
-        messageProxies.forEach(p -> {
+        for (MessageProxy<?> p : dispatchTable.proxiesFor(msgPtr.getMessageType())) {
             try {
                 p.busMessage(busPtr, msgPtr);
             } catch (Throwable t) {
                 LOG.log(Level.SEVERE, "Exception thrown by bus message handler", t);
             }
-        });
+        }
         GSTMINIOBJECT_API.gst_mini_object_unref(msgPtr);
     }
 
+    /**
+     * Schedule dispatch of a message on the dispatch executor. The message
+     * reference is released after dispatch.
+     */
+    private void scheduleDispatch(GstBusPtr busPtr, GstMessagePtr msgPtr) {
+        dispatcher.execute(() -> dispatchMessage(busPtr, msgPtr));
+    }
+
+    /**
+     * Schedule dispatch of the latest message with the same coalescing key. If
+     * dispatch of an earlier message with the key is already pending, the
+     * earlier message is replaced and released.
+     */
+    private void scheduleCoalescedDispatch(GstBusPtr busPtr, GstMessagePtr msgPtr, int type) {
+        // the message holds a reference to its source while pending, so the
+        // source address cannot be reused for another object
+        GstObjectPtr source = msgPtr.getSource();
+        Pointer structure = GSTMESSAGE_API.ptr_gst_message_get_structure(msgPtr);
+        CoalesceKey key = new CoalesceKey(type,
+                source == null ? 0 : Pointer.nativeValue(source.getPointer()),
+                structure == null ? 0 : GSTSTRUCTURE_API.gst_structure_get_name_id(structure));
+        GstMessagePtr superseded = coalesced.put(key, msgPtr);
+        if (superseded != null) {
+            GSTMINIOBJECT_API.gst_mini_object_unref(superseded);
+            return;
+        }
+        dispatcher.execute(() -> {
+            GstMessagePtr latest = coalesced.remove(key);
+            if (latest != null) {
+                dispatchMessage(busPtr, latest);
+            }
+        });
+    }
+
     @Override
     public void dispose() {
         removeWatch();
@@ -610,20 +835,41 @@ public class Bus extends GstObject {
     /**
      * Adds the bus signal watch. This will reference the bus until the signal
      * watch is removed and so will stop the Bus being GC'd and disposed.
+     * <p>
+     * While pull message types are set, a plain reference is held instead of
+     * the signal watch, as the signal watch would pop the queued messages
+     * when the default main context is iterated. The new reference is taken
+     * before the old one is released.
      */
     private void addWatch() {
         synchronized (lock) {
-            if (!watchAdded) {
-                LOG.fine("Add watch");
-                GSTBUS_API.gst_bus_add_signal_watch(this);
-                watchAdded = true;
+            if (pullMask == 0) {
+                if (!watchAdded) {
+                    LOG.fine("Add watch");
+                    GSTBUS_API.gst_bus_add_signal_watch(this);
+                    watchAdded = true;
+                }
+                if (watchRef) {
+                    Natives.unref(this);
+                    watchRef = false;
+                }
+            } else {
+                if (!watchRef) {
+                    Natives.ref(this);
+                    watchRef = true;
+                }
+                if (watchAdded) {
+                    LOG.fine("Remove watch");
+                    GSTBUS_API.gst_bus_remove_signal_watch(this);
+                    watchAdded = false;
+                }
             }
         }
     }
 
     /**
      * Removes the bus signal watch (which will remove the bus reference held by
-     * the signal watch).
+     * the signal watch), or the reference held in its place.
      */
     private void removeWatch() {
         synchronized (lock) {
@@ -632,6 +878,10 @@ public class Bus extends GstObject {
                 GSTBUS_API.gst_bus_remove_signal_watch(this);
                 watchAdded = false;
             }
+            if (watchRef) {
+                Natives.unref(this);
+                watchRef = false;
+            }
         }
     }
 
@@ -901,6 +1151,166 @@ public class Bus extends GstObject {
         }
     }
 
+    /**
+     * Immutable table of message proxies indexed by message type, replaced as
+     * a whole on registration so that dispatch never takes a lock. Each slot
+     * holds the listeners for one message type bit, along with all listeners
+     * for {@link MessageType#ANY}, in registration order. Extended message
+     * types share a single slot, and are matched exactly by the proxy.
+     */
+    private static final class DispatchTable {
+
+        private static final int EXTENDED_SLOT = 31;
+        private static final int UNKNOWN_SLOT = 32;
+        private static final DispatchTable EMPTY = new DispatchTable(new MessageProxy<?>[0]);
+
+        private final MessageProxy<?>[] proxies;
+        private final MessageProxy<?>[][] slots;
+        /**
+         * The message types of all listeners, so that messages without
+         * listeners can be dropped in the sync callback. The mask may include
+         * types that no listener is interested in - extended message types
+         * share bits with regular types - but never excludes a type that a
+         * listener is interested in.
+         */
+        private final int mask;
+
+        private DispatchTable(MessageProxy<?>[] proxies) {
+            this.proxies = proxies;
+            this.slots = new MessageProxy<?>[UNKNOWN_SLOT + 1][];
+            int m = 0;
+            for (MessageProxy<?> proxy : proxies) {
+                m |= proxy.type.intValue();
+            }
+            this.mask = m;
+            for (int i = 0; i < slots.length; i++) {
+                int slot = i;
+                slots[i] = Arrays.stream(proxies)
+                        .filter(p -> p.type == MessageType.ANY
+                        || slotFor(p.type.intValue()) == slot)
+                        .toArray(MessageProxy<?>[]::new);
+            }
+        }
+
+        private static int slotFor(int type) {
+            if ((type & MessageType.EXTENDED.intValue()) != 0) {
+                return EXTENDED_SLOT;
+            }
+            // regular types are a single bit, UNKNOWN (0) maps to 32
+            return Integer.numberOfTrailingZeros(type);
+        }
+
+        private MessageProxy<?>[] proxiesFor(int type) {
+            return slots[slotFor(type)];
+        }
+
+        private boolean isEmpty() {
+            return proxies.length == 0;
+        }
+
+        private DispatchTable with(MessageProxy<?> proxy) {
+            MessageProxy<?>[] updated = Arrays.copyOf(proxies, proxies.length + 1);
+            updated[proxies.length] = proxy;
+            return new DispatchTable(updated);
+        }
+
+        private DispatchTable without(Object listener) {
+            return new DispatchTable(Arrays.stream(proxies)
+                    .filter(p -> p.listener != listener)
+                    .toArray(MessageProxy<?>[]::new));
+        }
+
+    }
+
+    private static final class CoalesceKey {
+
+        private final int type;
+        private final long source;
+        private final int name;
+
+        private CoalesceKey(int type, long source, int name) {
+            this.type = type;
+            this.source = source;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CoalesceKey)) {
+                return false;
+            }
+            CoalesceKey other = (CoalesceKey) obj;
+            return type == other.type && source == other.source && name == other.name;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * type + Long.hashCode(source);
+            return 31 * hash + name;
+        }
+
+    }
+
+    /**
+     * Executes tasks in submission order on a delegate executor, at most one
+     * at a time. Tasks are run in batches, and a new batch is scheduled on
+     * the delegate if more tasks remain, so a busy bus does not monopolise a
+     * pooled thread. The delegate may be changed at any time, and is used
+     * from the next batch. A null delegate uses {@link Gst#getExecutor()}.
+     */
+    private static final class SerialExecutor implements Executor {
+
+        private static final int BATCH_SIZE = 64;
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile Executor delegate;
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.offer(task);
+            if (pending.getAndIncrement() == 0) {
+                schedule();
+            }
+        }
+
+        private void schedule() {
+            // volatile - use local reference
+            Executor executor = delegate;
+            try {
+                (executor != null ? executor : Gst.getExecutor()).execute(this::drain);
+            } catch (RejectedExecutionException ex) {
+                // run the remaining tasks rather than leaking messages
+                drain();
+            }
+        }
+
+        private void drain() {
+            int count = 0;
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by bus dispatch", t);
+                }
+                count++;
+                if (pending.decrementAndGet() == 0) {
+                    return;
+                }
+                if (count == BATCH_SIZE) {
+                    schedule();
+                    return;
+                }
+            }
+        }
+
+    }
+
     private static class SyncCallback implements GstBusAPI.BusSyncHandler {
 
         {
@@ -913,19 +1323,31 @@ public class Bus extends GstObject {
         @Override
         public BusSyncReply callback(final GstBusPtr busPtr, final GstMessagePtr msgPtr, Pointer userData) {
             Bus bus = Natives.objectFor(busPtr, Bus.class, true, true);
+            int type = msgPtr.getMessageType();
             // volatile - use local reference
             BusSyncHandler syncHandler = bus.syncHandler;
-            if (syncHandler != null) {
+            if (syncHandler != null && (type & bus.syncHandlerMask) != 0) {
                 Message msg = Natives.objectFor(msgPtr, Message.class, true, true);
                 BusSyncReply reply = syncHandler.syncMessage(msg);
-                if (reply != BusSyncReply.DROP) {
-                    Gst.getExecutor().execute(() -> bus.dispatchMessage(busPtr, msgPtr));
-                } else {
+                if (reply == BusSyncReply.DROP) {
                     // not calling dispatch message so unref here
                     GSTMINIOBJECT_API.gst_mini_object_unref(msgPtr);
+                    return BusSyncReply.DROP;
+                }
+            }
+            if ((type & bus.pullMask) != 0) {
+                // leave on the bus queue for pop / timedPop
+                return BusSyncReply.PASS;
+            }
+            if ((type & bus.dispatchTable.mask) != 0) {
+                if ((type & bus.coalesceMask) != 0) {
+                    bus.scheduleCoalescedDispatch(busPtr, msgPtr, type);
+                } else {
+                    bus.scheduleDispatch(busPtr, msgPtr);
                 }
             } else {
-                Gst.getExecutor().execute(() -> bus.dispatchMessage(busPtr, msgPtr));
+                // no listener is interested, so drop without dispatch
+                GSTMINIOBJECT_API.gst_mini_object_unref(msgPtr);
             }
             return BusSyncReply.DROP;
         }
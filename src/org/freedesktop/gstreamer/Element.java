@@ -31,6 +31,7 @@ import org.freedesktop.gstreamer.event.SeekFlags;
 import org.freedesktop.gstreamer.event.SeekType;
 import org.freedesktop.gstreamer.glib.NativeFlags;
 import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.BlockingCalls;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GstCallback;
 import org.freedesktop.gstreamer.lowlevel.GstContextPtr;
 import org.freedesktop.gstreamer.lowlevel.GstIteratorPtr;
@@ -289,7 +290,7 @@ public class Element extends GstObject {
      */
     public State getState(long timeout, TimeUnit units) {
         State[] state = new State[1];
-        GSTELEMENT_API.gst_element_get_state(this, state, null, units.toNanos(timeout));
+        getState(state, null, units.toNanos(timeout));
         return state[0];
     }
 
@@ -306,7 +307,7 @@ public class Element extends GstObject {
      */
     public State getState(long timeout) {
         State[] state = new State[1];
-        GSTELEMENT_API.gst_element_get_state(this, state, null, timeout);
+        getState(state, null, timeout);
         return state[0];
     }
 
@@ -325,11 +326,20 @@ public class Element extends GstObject {
     public void getState(long timeout, State[] states) {
         State[] state = new State[1];
         State[] pending = new State[1];
-        GSTELEMENT_API.gst_element_get_state(this, state, pending, timeout);
+        getState(state, pending, timeout);
         states[0] = state[0];
         states[1] = pending[0];
     }
 
+    private void getState(State[] state, State[] pending, long timeout) {
+        if (timeout == 0 || !BlockingCalls.shouldOffload()) {
+            GSTELEMENT_API.gst_element_get_state(this, state, pending, timeout);
+        } else {
+            BlockingCalls.invokeTimed(t -> GSTELEMENT_API.gst_element_get_state(this, state, pending, t),
+                    timeout, ret -> ret == StateChangeReturn.ASYNC);
+        }
+    }
+
     /**
      * Tries to change the state of the element to the same as its parent. If
      * this function returns false, the state of element is undefined.
@@ -54,6 +54,7 @@ import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.stream.Stream;
 import org.freedesktop.gstreamer.controller.Controllers;
+import org.freedesktop.gstreamer.allocators.Allocators;
 import org.freedesktop.gstreamer.elements.Elements;
 import org.freedesktop.gstreamer.glib.GLib;
 import org.freedesktop.gstreamer.glib.GMainContext;
@@ -653,7 +654,8 @@ public final class Gst {
                 new Controllers(),
                 new Elements(),
                 new WebRTC.Types(),
-                new Video.Types())
+                new Video.Types(),
+                new Allocators.Types())
                 .flatMap(NativeObject.TypeProvider::types)
                 .forEachOrdered(GstTypes::register);
         if (!DISABLE_EXTERNAL) {
@@ -673,8 +675,10 @@ public final class Gst {
         @Override
         public Stream<NativeObject.TypeRegistration<?>> types() {
             return Stream.of(
+                    registration(Allocator.class, Allocator.GTYPE_NAME, Allocator::new),
                     registration(Bin.class, Bin.GTYPE_NAME, Bin::new),
                     registration(Buffer.class, Buffer.GTYPE_NAME, Buffer::new),
+                    registration(BufferList.class, BufferList.GTYPE_NAME, BufferList::new),
                     registration(BufferPool.class, BufferPool.GTYPE_NAME, BufferPool::new),
                     registration(Bus.class, Bus.GTYPE_NAME, Bus::new),
                     registration(Caps.class, Caps.GTYPE_NAME, Caps::new),
@@ -684,6 +688,7 @@ public final class Gst {
                     registration(Element.class, Element.GTYPE_NAME, Element::new),
                     registration(ElementFactory.class, ElementFactory.GTYPE_NAME, ElementFactory::new),
                     registration(GhostPad.class, GhostPad.GTYPE_NAME, GhostPad::new),
+                    registration(MemoryBlock.class, MemoryBlock.GTYPE_NAME, MemoryBlock::new),
                     registration(Pad.class, Pad.GTYPE_NAME, Pad::new),
                     registration(PadTemplate.class, PadTemplate.GTYPE_NAME, PadTemplate::new),
                     registration(Pipeline.class, Pipeline.GTYPE_NAME, Pipeline::new),
@@ -0,0 +1,248 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import org.freedesktop.gstreamer.lowlevel.GstBufferAPI;
+import org.freedesktop.gstreamer.lowlevel.GstBufferAPI.MapInfoStruct;
+
+import static org.freedesktop.gstreamer.lowlevel.GstBufferAPI.GSTBUFFER_API;
+
+/**
+ * A handle to the mapped memory of a {@link Buffer}, obtained from
+ * {@link Buffer#mapped(boolean)}, {@link Buffer#mapped(int, int, boolean)} or
+ * {@link Buffer#mappedMemories(boolean)}.
+ * <p>
+ * Each MappedBuffer has its own native map info, so a Buffer may be mapped
+ * concurrently from multiple threads, or mapped more than once by the same
+ * thread, as long as the requested access is compatible. The memory must be
+ * released by calling {@link #close()}, ideally using try-with-resources. The
+ * ByteBuffer views must not be used after the MappedBuffer has been closed.
+ * <p>
+ * A MappedBuffer is not itself thread-safe, and should be closed by the
+ * thread that owns it.
+ */
+public final class MappedBuffer implements AutoCloseable {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocateDirect(0);
+
+    private final Buffer buffer;
+    private final boolean writable;
+    private final Pointer[] infos;
+    private final ByteBuffer[] data;
+    private boolean closed;
+
+    private MappedBuffer(Buffer buffer, boolean writable, Pointer[] infos, ByteBuffer[] data) {
+        this.buffer = buffer;
+        this.writable = writable;
+        this.infos = infos;
+        this.data = data;
+    }
+
+    /**
+     * Get the Buffer that this mapping belongs to.
+     *
+     * @return buffer
+     */
+    public Buffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Whether the memory was mapped for writing.
+     *
+     * @return true if writable
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * Get a {@link ByteBuffer} view of the mapped memory. If this mapping was
+     * created with {@link Buffer#mappedMemories(boolean)} and the Buffer has
+     * more than one memory block, use {@link #getByteBuffer(int)} instead.
+     * <p>
+     * Unlike {@link Buffer#map(boolean)}, memory without data is returned as
+     * an empty ByteBuffer rather than null.
+     *
+     * @return view of the mapped memory
+     * @throws IllegalStateException if this mapping has more than one
+     * ByteBuffer, or has been closed
+     */
+    public ByteBuffer getByteBuffer() {
+        checkOpen();
+        if (data.length != 1) {
+            throw new IllegalStateException("Mapping contains " + data.length + " memory blocks");
+        }
+        return data[0];
+    }
+
+    /**
+     * Get a {@link ByteBuffer} view of one mapped memory block.
+     *
+     * @param index index of memory block
+     * @return view of the mapped memory
+     * @throws IllegalStateException if this mapping has been closed
+     */
+    public ByteBuffer getByteBuffer(int index) {
+        checkOpen();
+        return data[index];
+    }
+
+    /**
+     * Get an array of {@link ByteBuffer} views, one per mapped memory block.
+     * The returned array is a copy and may be passed directly to
+     * {@link java.nio.channels.GatheringByteChannel#write(java.nio.ByteBuffer[])}.
+     *
+     * @return views of the mapped memory
+     * @throws IllegalStateException if this mapping has been closed
+     */
+    public ByteBuffer[] getByteBuffers() {
+        checkOpen();
+        return data.clone();
+    }
+
+    /**
+     * Get the number of ByteBuffer views in this mapping.
+     *
+     * @return number of views
+     */
+    public int getByteBufferCount() {
+        return data.length;
+    }
+
+    /**
+     * Get the total size in bytes of the mapped memory.
+     *
+     * @return mapped size
+     */
+    public int getSize() {
+        int size = 0;
+        for (ByteBuffer bb : data) {
+            size += bb.capacity();
+        }
+        return size;
+    }
+
+    /**
+     * Unmap the memory. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Pointer info : infos) {
+            GSTBUFFER_API.gst_buffer_unmap(buffer, info);
+            MapInfoPool.release(info);
+        }
+    }
+
+    boolean hasData(int index) {
+        return data[index] != EMPTY;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("MappedBuffer has been closed");
+        }
+    }
+
+    static MappedBuffer map(Buffer buffer, int idx, int length, boolean writable) {
+        Pointer info = MapInfoPool.acquire();
+        boolean ok = idx < 0
+                ? GSTBUFFER_API.gst_buffer_map(buffer, info, flags(writable))
+                : GSTBUFFER_API.gst_buffer_map_range(buffer, idx, length, info, flags(writable));
+        if (!ok) {
+            MapInfoPool.release(info);
+            return null;
+        }
+        return new MappedBuffer(buffer, writable,
+                new Pointer[]{info}, new ByteBuffer[]{MapInfoPool.byteBuffer(info)});
+    }
+
+    static MappedBuffer mapMemories(Buffer buffer, boolean writable) {
+        final int count = buffer.getMemoryCount();
+        final Pointer[] infos = new Pointer[count];
+        final ByteBuffer[] data = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            Pointer info = MapInfoPool.acquire();
+            if (!GSTBUFFER_API.gst_buffer_map_range(buffer, i, 1, info, flags(writable))) {
+                MapInfoPool.release(info);
+                for (int j = 0; j < i; j++) {
+                    GSTBUFFER_API.gst_buffer_unmap(buffer, infos[j]);
+                    MapInfoPool.release(infos[j]);
+                }
+                return null;
+            }
+            infos[i] = info;
+            data[i] = MapInfoPool.byteBuffer(info);
+        }
+        return new MappedBuffer(buffer, writable, infos, data);
+    }
+
+    private static int flags(boolean writable) {
+        return writable ? GstBufferAPI.GST_MAP_WRITE : GstBufferAPI.GST_MAP_READ;
+    }
+
+    /**
+     * Per-thread pool of native GstMapInfo structs, so that steady state
+     * mapping does not allocate native memory.
+     */
+    private static final class MapInfoPool {
+
+        private static final int MAX_POOLED = 16;
+        private static final int SIZE;
+        private static final int DATA_OFFSET;
+        private static final int SIZE_OFFSET;
+
+        static {
+            MapInfoStruct struct = new MapInfoStruct();
+            SIZE = struct.size();
+            DATA_OFFSET = struct.dataOffset();
+            SIZE_OFFSET = struct.sizeOffset();
+        }
+
+        private static final ThreadLocal<ArrayDeque<Pointer>> POOL
+                = ThreadLocal.withInitial(ArrayDeque::new);
+
+        private static Pointer acquire() {
+            Pointer info = POOL.get().pollFirst();
+            return info == null ? new Memory(SIZE) : info;
+        }
+
+        private static void release(Pointer info) {
+            ArrayDeque<Pointer> pool = POOL.get();
+            if (pool.size() < MAX_POOLED) {
+                pool.addFirst(info);
+            }
+        }
+
+        private static ByteBuffer byteBuffer(Pointer info) {
+            Pointer ptr = info.getPointer(DATA_OFFSET);
+            if (ptr == null) {
+                return EMPTY;
+            }
+            return ptr.getByteBuffer(0, info.getNativeLong(SIZE_OFFSET).longValue());
+        }
+
+    }
+
+}
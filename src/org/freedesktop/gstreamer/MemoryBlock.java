@@ -0,0 +1,145 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.GstMemoryAPI.MemoryStruct;
+
+import static org.freedesktop.gstreamer.lowlevel.GstMemoryAPI.GSTMEMORY_API;
+
+/**
+ * A MemoryBlock is a lightweight refcounted object that wraps a region of
+ * memory. This is the equivalent of GstMemory. A {@link Buffer} contains one
+ * or more MemoryBlocks. A MemoryBlock is usually created by an
+ * {@link Allocator}.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/gstreamer/gstmemory.html"
+ * >https://gstreamer.freedesktop.org/documentation/gstreamer/gstmemory.html</a>
+ */
+public class MemoryBlock extends MiniObject {
+
+    public static final String GTYPE_NAME = "GstMemory";
+
+    private static final int ALLOCATOR_OFFSET = new MemoryStruct().fieldOffset("allocator");
+
+    /**
+     * This constructor is for internal use only.
+     *
+     * @param init initialization data.
+     */
+    protected MemoryBlock(Initializer init) {
+        super(init);
+    }
+
+    /**
+     * Get the size of the valid data in this memory.
+     *
+     * @return size in bytes
+     */
+    public long getSize() {
+        return GSTMEMORY_API.gst_memory_get_sizes(this, null, null).longValue();
+    }
+
+    /**
+     * Get the offset of the valid data within the allocated memory.
+     *
+     * @return offset in bytes
+     */
+    public long getOffset() {
+        NativeLong[] offset = {new NativeLong(0)};
+        GSTMEMORY_API.gst_memory_get_sizes(this, offset, null);
+        return offset[0].longValue();
+    }
+
+    /**
+     * Get the maximum size of the allocated memory.
+     *
+     * @return maximum size in bytes
+     */
+    public long getMaxSize() {
+        NativeLong[] maxSize = {new NativeLong(0)};
+        GSTMEMORY_API.gst_memory_get_sizes(this, null, maxSize);
+        return maxSize[0].longValue();
+    }
+
+    /**
+     * Check if this memory is of the given type, as given by
+     * {@link Allocator#getMemoryType()}.
+     *
+     * @param memType memory type
+     * @return true if the memory is of the given type
+     */
+    public boolean isType(String memType) {
+        return GSTMEMORY_API.gst_memory_is_type(this, memType);
+    }
+
+    /**
+     * Get the {@link Allocator} that created this memory.
+     *
+     * @return allocator or null
+     */
+    public Allocator getAllocator() {
+        Pointer ptr = getRawPointer().getPointer(ALLOCATOR_OFFSET);
+        return ptr == null ? null : Natives.objectFor(ptr, Allocator.class, true, true);
+    }
+
+    /**
+     * Create a new MemoryBlock that shares the given region of this memory,
+     * without copying the data.
+     *
+     * @param offset offset to share from
+     * @param size size to share, or -1 to share to the end
+     * @return new memory
+     */
+    public MemoryBlock share(long offset, long size) {
+        return Natives.callerOwnsReturn(GSTMEMORY_API.ptr_gst_memory_share(this,
+                new NativeLong(offset), new NativeLong(size)), MemoryBlock.class);
+    }
+
+    /**
+     * Create a new MemoryBlock containing a copy of the given region of this
+     * memory.
+     *
+     * @param offset offset to copy from
+     * @param size size to copy, or -1 to copy to the end
+     * @return new memory
+     */
+    public MemoryBlock copy(long offset, long size) {
+        return Natives.callerOwnsReturn(GSTMEMORY_API.ptr_gst_memory_copy(this,
+                new NativeLong(offset), new NativeLong(size)), MemoryBlock.class);
+    }
+
+    /**
+     * Resize this memory to the given region of its allocated memory, without
+     * copying the data.
+     * <p>
+     * This memory must be writable.
+     *
+     * @param offset offset relative to the current offset
+     * @param size new size
+     * @throws IllegalStateException if the memory is not writable
+     */
+    public void resize(long offset, long size) {
+        if (!isWritable()) {
+            throw new IllegalStateException("Memory is not writable");
+        }
+        GSTMEMORY_API.gst_memory_resize(this, new NativeLong(offset), new NativeLong(size));
+    }
+
+}
@@ -54,6 +54,16 @@ public final class PadProbeInfo {
         return GSTPAD_API.gst_pad_probe_info_get_buffer(info);
     }
 
+    /**
+     * Get the BufferList from the probe, or null. A BufferList will only be
+     * available if the probe mask includes {@link PadProbeType#BUFFER_LIST}.
+     * 
+     * @return buffer list or null
+     */
+    public BufferList getBufferList() {
+        return GSTPAD_API.gst_pad_probe_info_get_buffer_list(info);
+    }
+
     /**
      * Get the Event from the probe, or null.
      * 
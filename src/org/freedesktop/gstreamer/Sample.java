@@ -21,6 +21,9 @@
  */
 package org.freedesktop.gstreamer;
 
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.GstAPI.GstSegmentStruct;
+
 import static org.freedesktop.gstreamer.lowlevel.GstSampleAPI.GSTSAMPLE_API;
 
 /**
@@ -40,6 +43,36 @@ public class Sample extends MiniObject {
         super(init);
     }
 
+    /**
+     * Create a new Sample with the provided details. A reference is taken on
+     * the buffer and caps, which may be null.
+     *
+     * @param buffer a {@link Buffer}, or null
+     * @param caps a {@link Caps}, or null
+     */
+    public Sample(Buffer buffer, Caps caps) {
+        this(buffer, caps, null);
+    }
+
+    /**
+     * Create a new Sample with the provided details. A reference is taken on
+     * the buffer and caps, which may be null. The segment values are copied
+     * into the sample, with the stream time and position of the segment set
+     * to its start value.
+     * <p>
+     * An {@link org.freedesktop.gstreamer.elements.AppSrc} only applies the
+     * segment of a pushed sample when its "handle-segment-change" property
+     * is enabled (since GStreamer 1.18).
+     *
+     * @param buffer a {@link Buffer}, or null
+     * @param caps a {@link Caps}, or null
+     * @param segment a {@link Segment}, or null
+     */
+    public Sample(Buffer buffer, Caps caps, Segment segment) {
+        this(Natives.initializer(GSTSAMPLE_API.ptr_gst_sample_new(buffer, caps,
+                segment == null ? null : toStruct(segment), null)));
+    }
+
     /**
      * Get the {@link Caps} associated with sample, or NULL when there is no caps. 
      * <b>The caps remains valid as long as sample is valid.</b>
@@ -65,6 +98,17 @@ public class Sample extends MiniObject {
     	GSTSAMPLE_API.gst_sample_set_caps(this, caps);
     }
 
+    /**
+     * Get the {@link Segment} associated with sample. A sample created
+     * without a segment has a default segment in {@link Format#TIME}.
+     *
+     * @return segment of sample
+     */
+    public Segment getSegment() {
+        GstSegmentStruct segment = GSTSAMPLE_API.gst_sample_get_segment(this);
+        return new Segment(segment.rate, segment.format, segment.start, segment.stop);
+    }
+
     /**
      * Get the {@link Buffer} associated with sample, or NULL when there is no
      * buffer.
@@ -77,6 +121,25 @@ public class Sample extends MiniObject {
         return GSTSAMPLE_API.gst_sample_get_buffer(this);
     }
     
+    /**
+     * Get the {@link BufferList} associated with sample, or NULL when there
+     * is no buffer list. An {@link org.freedesktop.gstreamer.elements.AppSink}
+     * will return samples with a buffer list, and no buffer, when buffer list
+     * support is enabled and upstream pushes buffer lists.
+     * <b>The buffer list remains valid as long as sample is valid.</b>
+     * If you need to hold on to it for longer than that, take a ref to the
+     * buffer list.
+     * <p>
+     * Since GStreamer 1.14
+     *
+     * @return buffer list of sample or NULL when there is no buffer list.
+     */
+    @Gst.Since(minor = 14)
+    public BufferList getBufferList() {
+        Gst.checkVersion(1, 14);
+        return GSTSAMPLE_API.gst_sample_get_buffer_list(this);
+    }
+
     /**
      * Set the {@link Buffer} associated with sample. 
      * This sample must be writable.
@@ -90,5 +153,11 @@ public class Sample extends MiniObject {
     	Gst.checkVersion(1, 16);
     	GSTSAMPLE_API.gst_sample_set_buffer(this, buffer);
     }
-    
+
+    private static GstSegmentStruct toStruct(Segment segment) {
+        long start = segment.getStartValue();
+        return new GstSegmentStruct(0, segment.getRate(), 1.0, segment.getFormat(),
+                0, 0, start, segment.getStopValue(), start, start, ClockTime.NONE);
+    }
+
 }
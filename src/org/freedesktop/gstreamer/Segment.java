@@ -22,6 +22,9 @@ package org.freedesktop.gstreamer;
 /**
  * A representation of the values used in querying the pipeline using
  * gst_query_new_segment() and subsequently gst_query_parse_segment().
+ * <p>
+ * A Segment may also be attached to a {@link Sample} with
+ * {@link Sample#Sample(Buffer, Caps, Segment)}.
  */
 public final class Segment {
     //--------------------------------------------------------------------------
@@ -40,7 +43,7 @@ public final class Segment {
     * @param startValue the start value.
     * @param stopValue the stop value.
     */
-    Segment(double rate, Format format, long startValue, long stopValue) {
+    public Segment(double rate, Format format, long startValue, long stopValue) {
         this.rate = rate;
         this.format = format;
         this.stopValue = stopValue;
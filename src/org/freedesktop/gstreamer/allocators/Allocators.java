@@ -0,0 +1,98 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.allocators;
+
+import java.util.stream.Stream;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.glib.NativeObject;
+
+import static org.freedesktop.gstreamer.glib.Natives.registration;
+import static org.freedesktop.gstreamer.lowlevel.GstAllocatorsAPI.GSTALLOCATORS_API;
+
+/**
+ * Utility functions and types for the GStreamer allocators library.
+ */
+public final class Allocators {
+
+    private Allocators() {
+    }
+
+    /**
+     * Check if the given {@link MemoryBlock} is backed by a file descriptor.
+     *
+     * @param memory memory to check
+     * @return true if the memory is backed by a file descriptor
+     */
+    public static boolean isFdMemory(MemoryBlock memory) {
+        return GSTALLOCATORS_API.gst_is_fd_memory(memory);
+    }
+
+    /**
+     * Get the file descriptor backing the given {@link MemoryBlock}. The file
+     * descriptor remains owned by the memory, and is only valid while the
+     * memory is valid.
+     *
+     * @param memory memory backed by a file descriptor
+     * @return file descriptor, or -1 if the memory is not backed by a file
+     * descriptor
+     */
+    public static int getFd(MemoryBlock memory) {
+        if (!GSTALLOCATORS_API.gst_is_fd_memory(memory)) {
+            return -1;
+        }
+        return GSTALLOCATORS_API.gst_fd_memory_get_fd(memory);
+    }
+
+    /**
+     * Get the file descriptor backing the given {@link Buffer}. The buffer
+     * must contain a single memory block backed by a file descriptor, such as
+     * buffers created from an {@link FdAllocator}, or buffers received from
+     * elements that produce file descriptor backed memory. The file descriptor
+     * remains owned by the buffer, and is only valid while the buffer is valid.
+     *
+     * @param buffer buffer backed by a file descriptor
+     * @return file descriptor, or -1 if the buffer does not consist of a
+     * single memory block backed by a file descriptor
+     */
+    public static int getFd(Buffer buffer) {
+        if (buffer.getMemoryCount() != 1) {
+            return -1;
+        }
+        MemoryBlock memory = buffer.getMemory(0);
+        try {
+            return getFd(memory);
+        } finally {
+            memory.dispose();
+        }
+    }
+
+    /**
+     * TypeProvider implementation for GStreamer allocators library.
+     */
+    public static class Types implements NativeObject.TypeProvider {
+
+        @Override
+        public Stream<NativeObject.TypeRegistration<?>> types() {
+            return Stream.of(
+                    registration(FdAllocator.class, FdAllocator.GTYPE_NAME,
+                            FdAllocator::new)
+            );
+        }
+
+    }
+
+}
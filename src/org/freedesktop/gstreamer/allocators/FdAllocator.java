@@ -0,0 +1,120 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.allocators;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import java.util.EnumSet;
+import org.freedesktop.gstreamer.Allocator;
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.glib.NativeFlags;
+import org.freedesktop.gstreamer.glib.Natives;
+
+import static org.freedesktop.gstreamer.lowlevel.GstAllocatorsAPI.GSTALLOCATORS_API;
+import static org.freedesktop.gstreamer.lowlevel.LibCAPI.LIBC_API;
+import static org.freedesktop.gstreamer.lowlevel.LibCAPI.MFD_CLOEXEC;
+
+/**
+ * An {@link Allocator} of {@link MemoryBlock} backed by a file descriptor. The
+ * memory is mapped with mmap when it is accessed, and by default the mapping
+ * is shared, so the same file descriptor may be mapped by another process to
+ * access the data without copying it.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/allocators/gstfdmemory.html"
+ * >https://gstreamer.freedesktop.org/documentation/allocators/gstfdmemory.html</a>
+ */
+public class FdAllocator extends Allocator {
+
+    public static final String GTYPE_NAME = "GstFdAllocator";
+
+    /**
+     * Create a new FdAllocator.
+     */
+    public FdAllocator() {
+        this(Natives.initializer(GSTALLOCATORS_API.ptr_gst_fd_allocator_new()));
+    }
+
+    FdAllocator(Initializer init) {
+        super(init);
+    }
+
+    /**
+     * Create a new {@link MemoryBlock} backed by the given file descriptor.
+     * Unless {@link FdMemoryFlags#DONT_CLOSE} is specified, the memory takes
+     * ownership of the file descriptor, and closes it when the memory is
+     * freed.
+     *
+     * @param fd file descriptor
+     * @param size size of the memory, which must not be larger than the file
+     * @param flags flags to control the memory
+     * @return new memory
+     * @throws IllegalArgumentException if the memory could not be created
+     */
+    public MemoryBlock allocate(int fd, long size, EnumSet<FdMemoryFlags> flags) {
+        Pointer ptr = GSTALLOCATORS_API.ptr_gst_fd_allocator_alloc(this, fd,
+                new NativeLong(size), NativeFlags.toInt(flags));
+        if (ptr == null) {
+            throw new IllegalArgumentException("Could not create memory for fd " + fd);
+        }
+        return Natives.callerOwnsReturn(ptr, MemoryBlock.class);
+    }
+
+    /**
+     * Create a new {@link MemoryBlock} of the given size, backed by an
+     * anonymous in-memory file created with {@code memfd_create}. The file
+     * descriptor, available via
+     * {@link Allocators#getFd(org.freedesktop.gstreamer.MemoryBlock)},
+     * may be passed to another process on the same host, eg. over a Unix
+     * domain socket, which can then map the data without copying it.
+     * <p>
+     * The memory owns the file descriptor, and closes it when the memory is
+     * freed.
+     * <p>
+     * This method is only supported on Linux.
+     *
+     * @param name name of the file, for debugging purposes
+     * @param size size of the memory
+     * @return new memory
+     * @throws IllegalArgumentException if size is negative, or too large for
+     * the platform off_t
+     * @throws IllegalStateException if the file could not be created
+     */
+    public MemoryBlock allocateMemfd(String name, long size) {
+        if (size < 0 || (NativeLong.SIZE < 8 && size > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("Invalid size " + size);
+        }
+        int fd;
+        try {
+            fd = LIBC_API.memfd_create(name, MFD_CLOEXEC);
+        } catch (LastErrorException ex) {
+            throw new IllegalStateException("memfd_create failed", ex);
+        }
+        try {
+            LIBC_API.ftruncate(fd, new NativeLong(size));
+            return allocate(fd, size, EnumSet.noneOf(FdMemoryFlags.class));
+        } catch (RuntimeException ex) {
+            try {
+                LIBC_API.close(fd);
+            } catch (LastErrorException ignore) {
+            }
+            throw ex instanceof LastErrorException
+                    ? new IllegalStateException("ftruncate failed", ex) : ex;
+        }
+    }
+
+}
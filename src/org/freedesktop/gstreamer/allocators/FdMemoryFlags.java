@@ -0,0 +1,60 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.allocators;
+
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.glib.NativeFlags;
+
+/**
+ * Various flags to control the operation of memory created by an
+ * {@link FdAllocator}.
+ */
+public enum FdMemoryFlags implements NativeFlags<FdMemoryFlags> {
+
+    /**
+     * Once the memory is mapped, keep it mapped until the memory is destroyed.
+     */
+    KEEP_MAPPED(1 << 0),
+
+    /**
+     * Do a private mapping instead of the default shared mapping. Writes to
+     * the memory will not be visible to other processes.
+     */
+    MAP_PRIVATE(1 << 1),
+
+    /**
+     * Don't close the file descriptor when the memory is freed. (Since 1.10)
+     */
+    @Gst.Since(minor = 10)
+    DONT_CLOSE(1 << 2);
+
+    private final int value;
+
+    private FdMemoryFlags(int value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the integer value of the enum.
+     *
+     * @return The integer value for this enum.
+     */
+    @Override
+    public final int intValue() {
+        return value;
+    }
+
+}
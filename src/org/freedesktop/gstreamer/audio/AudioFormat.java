@@ -0,0 +1,132 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.audio;
+
+import java.nio.ByteOrder;
+
+/**
+ * Raw audio sample formats, as used in the "format" field of
+ * <code>audio/x-raw</code> caps.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/audio/audio-format.html#GstAudioFormat"
+ * >https://gstreamer.freedesktop.org/documentation/audio/audio-format.html#GstAudioFormat</a>
+ */
+public enum AudioFormat {
+
+    S8(true, false, 8, 8, null),
+    U8(false, false, 8, 8, null),
+    S16LE(true, false, 16, 16, ByteOrder.LITTLE_ENDIAN),
+    S16BE(true, false, 16, 16, ByteOrder.BIG_ENDIAN),
+    U16LE(false, false, 16, 16, ByteOrder.LITTLE_ENDIAN),
+    U16BE(false, false, 16, 16, ByteOrder.BIG_ENDIAN),
+    S24_32LE(true, false, 32, 24, ByteOrder.LITTLE_ENDIAN),
+    S24_32BE(true, false, 32, 24, ByteOrder.BIG_ENDIAN),
+    U24_32LE(false, false, 32, 24, ByteOrder.LITTLE_ENDIAN),
+    U24_32BE(false, false, 32, 24, ByteOrder.BIG_ENDIAN),
+    S32LE(true, false, 32, 32, ByteOrder.LITTLE_ENDIAN),
+    S32BE(true, false, 32, 32, ByteOrder.BIG_ENDIAN),
+    U32LE(false, false, 32, 32, ByteOrder.LITTLE_ENDIAN),
+    U32BE(false, false, 32, 32, ByteOrder.BIG_ENDIAN),
+    S24LE(true, false, 24, 24, ByteOrder.LITTLE_ENDIAN),
+    S24BE(true, false, 24, 24, ByteOrder.BIG_ENDIAN),
+    U24LE(false, false, 24, 24, ByteOrder.LITTLE_ENDIAN),
+    U24BE(false, false, 24, 24, ByteOrder.BIG_ENDIAN),
+    S20LE(true, false, 24, 20, ByteOrder.LITTLE_ENDIAN),
+    S20BE(true, false, 24, 20, ByteOrder.BIG_ENDIAN),
+    U20LE(false, false, 24, 20, ByteOrder.LITTLE_ENDIAN),
+    U20BE(false, false, 24, 20, ByteOrder.BIG_ENDIAN),
+    S18LE(true, false, 24, 18, ByteOrder.LITTLE_ENDIAN),
+    S18BE(true, false, 24, 18, ByteOrder.BIG_ENDIAN),
+    U18LE(false, false, 24, 18, ByteOrder.LITTLE_ENDIAN),
+    U18BE(false, false, 24, 18, ByteOrder.BIG_ENDIAN),
+    F32LE(true, true, 32, 32, ByteOrder.LITTLE_ENDIAN),
+    F32BE(true, true, 32, 32, ByteOrder.BIG_ENDIAN),
+    F64LE(true, true, 64, 64, ByteOrder.LITTLE_ENDIAN),
+    F64BE(true, true, 64, 64, ByteOrder.BIG_ENDIAN);
+
+    private final boolean signed;
+    private final boolean floating;
+    private final int width;
+    private final int depth;
+    private final ByteOrder order;
+
+    private AudioFormat(boolean signed, boolean floating, int width, int depth, ByteOrder order) {
+        this.signed = signed;
+        this.floating = floating;
+        this.width = width;
+        this.depth = depth;
+        this.order = order;
+    }
+
+    /**
+     * Whether samples are signed.
+     *
+     * @return true if signed
+     */
+    public boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * Whether samples are floating point.
+     *
+     * @return true if floating point
+     */
+    public boolean isFloat() {
+        return floating;
+    }
+
+    /**
+     * The number of bits used to store a sample.
+     *
+     * @return width in bits
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * The number of valid bits in a sample.
+     *
+     * @return depth in bits
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * The byte order of samples. Single byte formats use the native byte
+     * order.
+     *
+     * @return byte order
+     */
+    public ByteOrder getByteOrder() {
+        return order == null ? ByteOrder.nativeOrder() : order;
+    }
+
+    /**
+     * Find the AudioFormat for the given caps format string, eg. "S16LE".
+     *
+     * @param format format string
+     * @return AudioFormat
+     * @throws IllegalArgumentException if the format is unknown
+     */
+    public static AudioFormat fromString(String format) {
+        return valueOf(format);
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.freedesktop.gstreamer.Caps;
+import org.freedesktop.gstreamer.Structure;
+
+/**
+ * Information describing raw audio, parsed from fixed
+ * <code>audio/x-raw</code> {@link Caps}. This is the equivalent of
+ * GstAudioInfo.
+ * <p>
+ * AudioInfo also provides typed, correctly ordered views of mapped audio
+ * data, such as that returned by
+ * {@link org.freedesktop.gstreamer.Buffer#map(boolean)}. The views share the
+ * mapped memory, so no data is copied, and they are only valid while the
+ * buffer is mapped.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/audio/audio-info.html"
+ * >https://gstreamer.freedesktop.org/documentation/audio/audio-info.html</a>
+ */
+public final class AudioInfo {
+
+    // small cache keyed on Caps identity, see fromCaps()
+    private static final int CACHE_SIZE = 16;
+    private static final AtomicReferenceArray<CacheEntry> CACHE
+            = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    private final AudioFormat format;
+    private final AudioLayout layout;
+    private final int rate;
+    private final int channels;
+
+    /**
+     * Create an AudioInfo with the given details.
+     *
+     * @param format sample format
+     * @param layout channel layout
+     * @param rate sample rate
+     * @param channels number of channels
+     * @throws NullPointerException if format or layout is null
+     * @throws IllegalArgumentException if rate or channels are not positive
+     */
+    public AudioInfo(AudioFormat format, AudioLayout layout, int rate, int channels) {
+        Objects.requireNonNull(format, "format");
+        Objects.requireNonNull(layout, "layout");
+        if (rate <= 0 || channels <= 0) {
+            throw new IllegalArgumentException("Invalid rate " + rate
+                    + " or channels " + channels);
+        }
+        this.format = format;
+        this.layout = layout;
+        this.rate = rate;
+        this.channels = channels;
+    }
+
+    /**
+     * Get the AudioInfo for the given caps. The result is cached against the
+     * Caps instance, without locking, so calling this for the caps of every
+     * sample in a stream usually only parses the caps once. The cache does
+     * not keep the Caps reachable, and the caps must not be modified after
+     * calling this method.
+     *
+     * @param caps fixed audio/x-raw caps
+     * @return AudioInfo
+     * @throws IllegalArgumentException if the caps are not fixed raw audio
+     * caps
+     */
+    public static AudioInfo fromCaps(Caps caps) {
+        int slot = System.identityHashCode(caps) & (CACHE_SIZE - 1);
+        CacheEntry entry = CACHE.get(slot);
+        if (entry != null && entry.get() == caps) {
+            return entry.info;
+        }
+        AudioInfo info = parse(caps);
+        CACHE.set(slot, new CacheEntry(caps, info));
+        return info;
+    }
+
+    private static AudioInfo parse(Caps caps) {
+        if (caps.size() != 1 || !caps.isFixed()) {
+            throw new IllegalArgumentException("Caps are not fixed : " + caps);
+        }
+        Structure struct = caps.getStructure(0);
+        if (!struct.hasName("audio/x-raw")) {
+            throw new IllegalArgumentException("Caps are not raw audio : " + caps);
+        }
+        AudioFormat format = AudioFormat.fromString(struct.getString("format"));
+        AudioLayout layout = struct.hasField("layout")
+                ? AudioLayout.fromString(struct.getString("layout"))
+                : AudioLayout.INTERLEAVED;
+        return new AudioInfo(format, layout,
+                struct.getInteger("rate"), struct.getInteger("channels"));
+    }
+
+    /**
+     * Get the sample format.
+     *
+     * @return format
+     */
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Get the channel layout.
+     *
+     * @return layout
+     */
+    public AudioLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Whether the samples of all channels are interleaved.
+     *
+     * @return true if interleaved
+     */
+    public boolean isInterleaved() {
+        return layout == AudioLayout.INTERLEAVED;
+    }
+
+    /**
+     * Get the sample rate.
+     *
+     * @return rate in Hz
+     */
+    public int getRate() {
+        return rate;
+    }
+
+    /**
+     * Get the number of channels.
+     *
+     * @return channels
+     */
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Get the number of bytes for one frame, ie. one sample of every channel.
+     *
+     * @return bytes per frame
+     */
+    public int getBytesPerFrame() {
+        return format.getWidth() / 8 * channels;
+    }
+
+    /**
+     * Get the number of frames in data of the given size.
+     *
+     * @param size size in bytes
+     * @return number of frames
+     */
+    public int getFrames(int size) {
+        return size / getBytesPerFrame();
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * 16-bit samples, in memory order.
+     *
+     * @param data mapped audio data
+     * @return ShortBuffer view
+     * @throws IllegalStateException if the format does not have 16-bit
+     * integer samples
+     */
+    public ShortBuffer asShortBuffer(ByteBuffer data) {
+        checkFormat(false, 16);
+        return ordered(data).asShortBuffer();
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * 32-bit integer samples, in memory order.
+     *
+     * @param data mapped audio data
+     * @return IntBuffer view
+     * @throws IllegalStateException if the format does not have 32-bit
+     * integer samples
+     */
+    public IntBuffer asIntBuffer(ByteBuffer data) {
+        checkFormat(false, 32);
+        return ordered(data).asIntBuffer();
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * 32-bit float samples, in memory order.
+     *
+     * @param data mapped audio data
+     * @return FloatBuffer view
+     * @throws IllegalStateException if the format does not have 32-bit
+     * float samples
+     */
+    public FloatBuffer asFloatBuffer(ByteBuffer data) {
+        checkFormat(true, 32);
+        return ordered(data).asFloatBuffer();
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * 64-bit float samples, in memory order.
+     *
+     * @param data mapped audio data
+     * @return DoubleBuffer view
+     * @throws IllegalStateException if the format does not have 64-bit
+     * float samples
+     */
+    public DoubleBuffer asDoubleBuffer(ByteBuffer data) {
+        checkFormat(true, 64);
+        return ordered(data).asDoubleBuffer();
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * one ShortBuffer per plane. Interleaved data has a single plane, and
+     * non-interleaved data has one plane per channel. Planes are assumed to
+     * be contiguous and of equal size.
+     *
+     * @param data mapped audio data
+     * @return ShortBuffer views
+     * @throws IllegalStateException if the format does not have 16-bit
+     * integer samples
+     */
+    public ShortBuffer[] asShortBuffers(ByteBuffer data) {
+        checkFormat(false, 16);
+        return planes(data, ByteBuffer::asShortBuffer, ShortBuffer[]::new);
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * one IntBuffer per plane. See {@link #asShortBuffers(ByteBuffer)}.
+     *
+     * @param data mapped audio data
+     * @return IntBuffer views
+     * @throws IllegalStateException if the format does not have 32-bit
+     * integer samples
+     */
+    public IntBuffer[] asIntBuffers(ByteBuffer data) {
+        checkFormat(false, 32);
+        return planes(data, ByteBuffer::asIntBuffer, IntBuffer[]::new);
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * one FloatBuffer per plane. See {@link #asShortBuffers(ByteBuffer)}.
+     *
+     * @param data mapped audio data
+     * @return FloatBuffer views
+     * @throws IllegalStateException if the format does not have 32-bit
+     * float samples
+     */
+    public FloatBuffer[] asFloatBuffers(ByteBuffer data) {
+        checkFormat(true, 32);
+        return planes(data, ByteBuffer::asFloatBuffer, FloatBuffer[]::new);
+    }
+
+    /**
+     * View the data between position and limit of the given ByteBuffer as
+     * one DoubleBuffer per plane. See {@link #asShortBuffers(ByteBuffer)}.
+     *
+     * @param data mapped audio data
+     * @return DoubleBuffer views
+     * @throws IllegalStateException if the format does not have 64-bit
+     * float samples
+     */
+    public DoubleBuffer[] asDoubleBuffers(ByteBuffer data) {
+        checkFormat(true, 64);
+        return planes(data, ByteBuffer::asDoubleBuffer, DoubleBuffer[]::new);
+    }
+
+    private void checkFormat(boolean floating, int width) {
+        if (format.isFloat() != floating || format.getWidth() != width) {
+            throw new IllegalStateException("Cannot view " + format + " samples as "
+                    + width + "-bit " + (floating ? "float" : "integer"));
+        }
+    }
+
+    private ByteBuffer ordered(ByteBuffer data) {
+        return data.slice().order(format.getByteOrder());
+    }
+
+    private <T extends java.nio.Buffer> T[] planes(ByteBuffer data,
+            Function<ByteBuffer, T> view, IntFunction<T[]> array) {
+        if (isInterleaved()) {
+            T[] planes = array.apply(1);
+            planes[0] = view.apply(ordered(data));
+            return planes;
+        }
+        int size = data.remaining() / getBytesPerFrame() * (format.getWidth() / 8);
+        T[] planes = array.apply(channels);
+        for (int i = 0; i < channels; i++) {
+            ByteBuffer plane = data.duplicate();
+            plane.position(data.position() + i * size);
+            plane.limit(plane.position() + size);
+            planes[i] = view.apply(ordered(plane));
+        }
+        return planes;
+    }
+
+    @Override
+    public String toString() {
+        return "AudioInfo{" + format + ", " + layout + ", rate=" + rate
+                + ", channels=" + channels + '}';
+    }
+
+    private static final class CacheEntry extends WeakReference<Caps> {
+
+        private final AudioInfo info;
+
+        private CacheEntry(Caps caps, AudioInfo info) {
+            super(caps);
+            this.info = info;
+        }
+
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.audio;
+
+/**
+ * Layout of the audio samples for the different channels, as used in the
+ * "layout" field of <code>audio/x-raw</code> caps.
+ * <p>
+ * See upstream documentation at
+ * <a href="https://gstreamer.freedesktop.org/documentation/audio/audio-info.html#GstAudioLayout"
+ * >https://gstreamer.freedesktop.org/documentation/audio/audio-info.html#GstAudioLayout</a>
+ */
+public enum AudioLayout {
+
+    /**
+     * Samples of the channels are interleaved within each frame.
+     */
+    INTERLEAVED("interleaved"),
+    /**
+     * Each channel is stored in a separate plane.
+     */
+    NON_INTERLEAVED("non-interleaved");
+
+    private final String name;
+
+    private AudioLayout(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Find the AudioLayout for the given caps layout string.
+     *
+     * @param layout layout string
+     * @return AudioLayout
+     * @throws IllegalArgumentException if the layout is unknown
+     */
+    public static AudioLayout fromString(String layout) {
+        for (AudioLayout l : values()) {
+            if (l.name.equals(layout)) {
+                return l;
+            }
+        }
+        throw new IllegalArgumentException("Unknown audio layout " + layout);
+    }
+
+}
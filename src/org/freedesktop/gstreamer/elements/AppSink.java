@@ -24,10 +24,26 @@
 package org.freedesktop.gstreamer.elements;
 
 import org.freedesktop.gstreamer.Caps;
+import org.freedesktop.gstreamer.ClockTime;
 import org.freedesktop.gstreamer.Element;
 import org.freedesktop.gstreamer.FlowReturn;
+import org.freedesktop.gstreamer.Gst;
 import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.State;
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSinkCallbacks;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSinkEosCallback;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSinkFlowCallback;
+import org.freedesktop.gstreamer.lowlevel.BlockingCalls;
+import org.freedesktop.gstreamer.lowlevel.CallbackRegistry;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GstCallback;
+
+import com.sun.jna.Pointer;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import static org.freedesktop.gstreamer.lowlevel.AppAPI.APP_API;
 
 /**
@@ -45,10 +61,10 @@ import static org.freedesktop.gstreamer.lowlevel.AppAPI.APP_API;
  * The normal way of retrieving samples from appsink is by using the
  * {@link #pullSample()} and {@link #pullPreroll()} methods. These methods block
  * until a sample becomes available in the sink or when the sink is shut down or
- * reaches EOS. (<em>TODO - not currently mapped in the Java bindings.</em>
- * There are also timed variants of these methods,
- * gst_app_sink_try_pull_sample() and gst_app_sink_try_pull_preroll(), which
- * accept a timeout parameter to limit the amount of time to wait).
+ * reaches EOS. There are also timed variants of these methods,
+ * {@link #tryPullSample(long, java.util.concurrent.TimeUnit)} and
+ * {@link #tryPullPreroll(long, java.util.concurrent.TimeUnit)}, which accept
+ * a timeout parameter to limit the amount of time to wait.
  * <p>
  * Appsink will internally use a queue to collect buffers from the streaming
  * thread. If the application is not pulling samples fast enough, this queue
@@ -122,6 +138,38 @@ public class AppSink extends BaseSink {
         return APP_API.gst_app_sink_is_eos(this);
     }
 
+    /**
+     * Instruct this AppSink to enable or disable buffer list support. When
+     * enabled, buffer lists pushed from upstream are kept together and
+     * returned as a single {@link Sample} with a
+     * {@link Sample#getBufferList() buffer list}, instead of being split into
+     * individual samples.
+     * <p>
+     * This is equivalent to setting the {@code buffer-list} property.
+     * <p>
+     * Since GStreamer 1.12
+     *
+     * @param enable whether to enable buffer list support
+     */
+    @Gst.Since(minor = 12)
+    public void setBufferListSupport(boolean enable) {
+        Gst.checkVersion(1, 12);
+        APP_API.gst_app_sink_set_buffer_list_support(this, enable);
+    }
+
+    /**
+     * Check if this AppSink supports buffer lists.
+     * <p>
+     * Since GStreamer 1.12
+     *
+     * @return true if buffer list support is enabled
+     */
+    @Gst.Since(minor = 12)
+    public boolean getBufferListSupport() {
+        Gst.checkVersion(1, 12);
+        return APP_API.gst_app_sink_get_buffer_list_support(this);
+    }
+
     /**
      * Get the last preroll {@link Sample}. This was the Sample that caused the
      * AppSink to preroll in the PAUSED state.
@@ -145,7 +193,13 @@ public class AppSink extends BaseSink {
      * @return a Sample, or null if the AppSink is stopped or EOS
      */
     public Sample pullPreroll() {
-        return APP_API.gst_app_sink_pull_preroll(this);
+        if (!BlockingCalls.shouldOffload()) {
+            return APP_API.gst_app_sink_pull_preroll(this);
+        } else if (Gst.testVersion(1, 10)) {
+            return BlockingCalls.invokeTimed(t -> APP_API.gst_app_sink_try_pull_preroll(this, t),
+                    ClockTime.NONE, this::isPullPending);
+        }
+        return BlockingCalls.invoke(() -> APP_API.gst_app_sink_pull_preroll(this));
     }
 
     /**
@@ -164,7 +218,82 @@ public class AppSink extends BaseSink {
      * @return a Sample, or null if the AppSink is stopped or EOS
      */
     public Sample pullSample() {
-        return APP_API.gst_app_sink_pull_sample(this);
+        if (!BlockingCalls.shouldOffload()) {
+            return APP_API.gst_app_sink_pull_sample(this);
+        } else if (Gst.testVersion(1, 10)) {
+            return BlockingCalls.invokeTimed(t -> APP_API.gst_app_sink_try_pull_sample(this, t),
+                    ClockTime.NONE, this::isPullPending);
+        }
+        return BlockingCalls.invoke(() -> APP_API.gst_app_sink_pull_sample(this));
+    }
+
+    /**
+     * Get the last preroll {@link Sample}, waiting at most the given timeout
+     * for it to become available. See {@link #pullPreroll()} for details.
+     * <p>
+     * A timeout of zero (or less) polls for a preroll sample without
+     * blocking.
+     * <p>
+     * Since GStreamer 1.10
+     *
+     * @param timeout the maximum amount of time to wait
+     * @param unit the unit of the timeout
+     * @return a Sample, or null if the AppSink is stopped or EOS, or the
+     * timeout expired
+     */
+    @Gst.Since(minor = 10)
+    public Sample tryPullPreroll(long timeout, TimeUnit unit) {
+        Gst.checkVersion(1, 10);
+        long clockTime = toClockTime(timeout, unit);
+        if (clockTime == 0 || !BlockingCalls.shouldOffload()) {
+            return APP_API.gst_app_sink_try_pull_preroll(this, clockTime);
+        }
+        return BlockingCalls.invokeTimed(t -> APP_API.gst_app_sink_try_pull_preroll(this, t),
+                clockTime, this::isPullPending);
+    }
+
+    /**
+     * Get the next {@link Sample}, waiting at most the given timeout for it to
+     * become available. See {@link #pullSample()} for details.
+     * <p>
+     * A timeout of zero (or less) polls for a sample without blocking.
+     * <p>
+     * Since GStreamer 1.10
+     *
+     * @param timeout the maximum amount of time to wait
+     * @param unit the unit of the timeout
+     * @return a Sample, or null if the AppSink is stopped or EOS, or the
+     * timeout expired
+     */
+    @Gst.Since(minor = 10)
+    public Sample tryPullSample(long timeout, TimeUnit unit) {
+        Gst.checkVersion(1, 10);
+        long clockTime = toClockTime(timeout, unit);
+        if (clockTime == 0 || !BlockingCalls.shouldOffload()) {
+            return APP_API.gst_app_sink_try_pull_sample(this, clockTime);
+        }
+        return BlockingCalls.invokeTimed(t -> APP_API.gst_app_sink_try_pull_sample(this, t),
+                clockTime, this::isPullPending);
+    }
+
+    /**
+     * Whether a null result from a non-blocking pull means a blocking pull
+     * would still be waiting, ie. the sink is not EOS and is started or
+     * starting.
+     */
+    private boolean isPullPending(Sample sample) {
+        if (sample != null || isEOS()) {
+            return false;
+        }
+        State[] states = new State[2];
+        getState(0, states);
+        return states[0].intValue() >= State.PAUSED.intValue()
+                || states[1].intValue() >= State.PAUSED.intValue();
+    }
+
+    private static long toClockTime(long timeout, TimeUnit unit) {
+        // TimeUnit saturates at Long.MAX_VALUE, so never GST_CLOCK_TIME_NONE
+        return timeout <= 0 ? 0 : unit.toNanos(timeout);
     }
 
     /**
@@ -283,4 +412,140 @@ public class AppSink extends BaseSink {
         disconnect(NEW_PREROLL.class, listener);
     }
 
+    /**
+     * Install native callbacks for the eos, new-preroll and new-sample events,
+     * instead of connecting to the corresponding signals. This is
+     * significantly cheaper than signal emission, and does not require the
+     * "emit-signals" property to be enabled. Any of the handlers may be null.
+     * <p>
+     * The handlers are called on the streaming thread, and replace any
+     * handlers previously installed with this method. Only one set of handlers
+     * can be installed at a time. If a new-sample or new-preroll handler is
+     * installed, the new-sample or new-preroll signal will not be emitted.
+     * <p>
+     * The handlers are not used to keep this AppSink alive. They are released
+     * when they are replaced, removed with {@link #clearCallbacks()}, or when
+     * the native element is disposed.
+     *
+     * @param eos handler for EOS, or null
+     * @param newPreroll handler for new preroll samples, or null
+     * @param newSample handler for new samples, or null
+     */
+    public void setCallbacks(EOS eos, NEW_PREROLL newPreroll, NEW_SAMPLE newSample) {
+        AppSinkCallbacks callbacks = new AppSinkCallbacks();
+        if (eos != null) {
+            callbacks.eos = NativeCallbacks.EOS_CALLBACK;
+        }
+        if (newPreroll != null) {
+            callbacks.new_preroll = NativeCallbacks.NEW_PREROLL_CALLBACK;
+        }
+        if (newSample != null) {
+            callbacks.new_sample = NativeCallbacks.NEW_SAMPLE_CALLBACK;
+        }
+        Pointer userData = NativeCallbacks.HANDLERS.register(
+                new NativeCallbacks(this, eos, newPreroll, newSample));
+        APP_API.gst_app_sink_set_callbacks(this, callbacks,
+                userData, NativeCallbacks.HANDLERS.getDestroyNotify());
+    }
+
+    /**
+     * Remove the handlers installed with
+     * {@link #setCallbacks(org.freedesktop.gstreamer.elements.AppSink.EOS, org.freedesktop.gstreamer.elements.AppSink.NEW_PREROLL, org.freedesktop.gstreamer.elements.AppSink.NEW_SAMPLE)}.
+     */
+    public void clearCallbacks() {
+        APP_API.gst_app_sink_set_callbacks(this, new AppSinkCallbacks(), null, null);
+    }
+
+    /**
+     * Registry of handlers installed via gst_app_sink_set_callbacks(). The
+     * native callbacks are shared by all AppSinks, and look up the handlers
+     * using the user_data key.
+     */
+    private static final class NativeCallbacks {
+
+        private static final Logger LOG = Logger.getLogger(AppSink.class.getName());
+        private static final CallbackRegistry<NativeCallbacks> HANDLERS
+                = new CallbackRegistry<>("AppSinkCallback");
+
+        private static final AppSinkEosCallback EOS_CALLBACK = new AppSinkEosCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public void callback(Pointer appsink, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers != null && handlers.eos != null) {
+                    try {
+                        handlers.eos.eos(handlers.sink(appsink));
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by AppSink EOS handler", t);
+                    }
+                }
+            }
+        };
+
+        private static final AppSinkFlowCallback NEW_PREROLL_CALLBACK = new AppSinkFlowCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public int callback(Pointer appsink, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers == null || handlers.newPreroll == null) {
+                    return FlowReturn.OK.intValue();
+                }
+                try {
+                    return handlers.newPreroll.newPreroll(handlers.sink(appsink)).intValue();
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by AppSink new preroll handler", t);
+                    return FlowReturn.ERROR.intValue();
+                }
+            }
+        };
+
+        private static final AppSinkFlowCallback NEW_SAMPLE_CALLBACK = new AppSinkFlowCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public int callback(Pointer appsink, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers == null || handlers.newSample == null) {
+                    return FlowReturn.OK.intValue();
+                }
+                try {
+                    return handlers.newSample.newSample(handlers.sink(appsink)).intValue();
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by AppSink new sample handler", t);
+                    return FlowReturn.ERROR.intValue();
+                }
+            }
+        };
+
+        private final WeakReference<AppSink> sinkRef;
+        private final EOS eos;
+        private final NEW_PREROLL newPreroll;
+        private final NEW_SAMPLE newSample;
+
+        private NativeCallbacks(AppSink sink, EOS eos,
+                NEW_PREROLL newPreroll, NEW_SAMPLE newSample) {
+            this.sinkRef = new WeakReference<>(sink);
+            this.eos = eos;
+            this.newPreroll = newPreroll;
+            this.newSample = newSample;
+        }
+
+        private AppSink sink(Pointer ptr) {
+            AppSink sink = sinkRef.get();
+            return sink != null ? sink : Natives.objectFor(ptr, AppSink.class, true, true);
+        }
+
+    }
+
 }
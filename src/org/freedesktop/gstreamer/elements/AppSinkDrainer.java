@@ -0,0 +1,170 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.MappedBuffer;
+import org.freedesktop.gstreamer.Sample;
+
+/**
+ * A helper that pulls {@link Sample}s from an {@link AppSink} and writes
+ * their data to a {@link WritableByteChannel}, such as a file or socket.
+ * <p>
+ * The memory blocks of each {@link Buffer} are mapped individually with
+ * {@link Buffer#mappedMemories(boolean)} and written directly from native
+ * memory, using a single gathering write where the channel is a
+ * {@link GatheringByteChannel}. No data is copied to the Java heap. Each
+ * buffer is unmapped, and each sample released, as soon as its data has
+ * been written.
+ * <p>
+ * Samples carrying a {@link BufferList} rather than a Buffer, as produced
+ * when buffer list support is enabled on the AppSink, are also supported.
+ * <p>
+ * The channel should be in blocking mode.
+ */
+public final class AppSinkDrainer {
+
+    private final AppSink sink;
+    private final WritableByteChannel channel;
+
+    /**
+     * Create a drainer for the given AppSink and channel.
+     *
+     * @param sink the AppSink to pull samples from
+     * @param channel the channel to write to
+     */
+    public AppSinkDrainer(AppSink sink, WritableByteChannel channel) {
+        this.sink = Objects.requireNonNull(sink);
+        this.channel = Objects.requireNonNull(channel);
+    }
+
+    /**
+     * Pull and write samples until the AppSink reaches EOS or is stopped.
+     * The channel is not closed.
+     *
+     * @return the number of bytes written
+     * @throws IOException if writing to the channel fails
+     */
+    public long drain() throws IOException {
+        long total = 0;
+        Sample sample;
+        while ((sample = sink.pullSample()) != null) {
+            total += write(sample, channel);
+        }
+        return total;
+    }
+
+    /**
+     * Pull and write a single sample, blocking until one is available.
+     *
+     * @return the number of bytes written, or -1 if the AppSink is at EOS or
+     * stopped
+     * @throws IOException if writing to the channel fails
+     */
+    public long drainSample() throws IOException {
+        Sample sample = sink.pullSample();
+        return sample == null ? -1 : write(sample, channel);
+    }
+
+    /**
+     * Write the data of a sample to the given channel, and dispose the
+     * sample.
+     *
+     * @param sample the sample to write
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if writing to the channel fails
+     */
+    public static long write(Sample sample, WritableByteChannel channel) throws IOException {
+        try {
+            Buffer buffer = sample.getBuffer();
+            if (buffer != null) {
+                try {
+                    return write(buffer, channel);
+                } finally {
+                    buffer.dispose();
+                }
+            }
+            if (Gst.testVersion(1, 14)) {
+                BufferList list = sample.getBufferList();
+                if (list != null) {
+                    try {
+                        long total = 0;
+                        for (int i = 0; i < list.size(); i++) {
+                            Buffer b = list.get(i);
+                            try {
+                                total += write(b, channel);
+                            } finally {
+                                b.dispose();
+                            }
+                        }
+                        return total;
+                    } finally {
+                        list.dispose();
+                    }
+                }
+            }
+            return 0;
+        } finally {
+            sample.dispose();
+        }
+    }
+
+    /**
+     * Write the data of a buffer to the given channel. The buffer is mapped
+     * for the duration of the write, but not disposed.
+     *
+     * @param buffer the buffer to write
+     * @param channel the channel to write to
+     * @return the number of bytes written
+     * @throws IOException if writing to the channel fails, or the buffer
+     * cannot be mapped
+     */
+    public static long write(Buffer buffer, WritableByteChannel channel) throws IOException {
+        try (MappedBuffer mapped = buffer.mappedMemories(false)) {
+            if (mapped == null) {
+                throw new IOException("Unable to map buffer");
+            }
+            ByteBuffer[] data = mapped.getByteBuffers();
+            long total = 0;
+            if (channel instanceof GatheringByteChannel && data.length > 1) {
+                GatheringByteChannel gathering = (GatheringByteChannel) channel;
+                long remaining = 0;
+                for (ByteBuffer bb : data) {
+                    remaining += bb.remaining();
+                }
+                while (total < remaining) {
+                    total += gathering.write(data);
+                }
+            } else {
+                for (ByteBuffer bb : data) {
+                    while (bb.hasRemaining()) {
+                        total += channel.write(bb);
+                    }
+                }
+            }
+            return total;
+        }
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.freedesktop.gstreamer.Bus;
+import org.freedesktop.gstreamer.FlowReturn;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.GstException;
+import org.freedesktop.gstreamer.Sample;
+
+import static org.freedesktop.gstreamer.lowlevel.GstObjectAPI.GSTOBJECT_API;
+
+/**
+ * A {@link Flow.Publisher} of the {@link Sample}s received by an
+ * {@link AppSink}.
+ * <p>
+ * Samples are only pulled from the AppSink when the subscriber has
+ * outstanding demand. Until then they are held in the AppSink queue, which
+ * is bounded by the "max-buffers" property. When the queue is full, the
+ * streaming thread either blocks, propagating backpressure upstream, or
+ * drops the oldest samples, depending on the "drop" property. Both
+ * properties are configured on the AppSink when a subscriber is added, along
+ * with "wait-on-eos" so that all queued samples are delivered before
+ * completion.
+ * <p>
+ * All subscriber methods are invoked through the provided {@link Executor},
+ * never on the streaming thread. The subscriber is completed when the
+ * AppSink reaches EOS and all queued samples have been delivered. If the
+ * AppSink is in a {@link org.freedesktop.gstreamer.Pipeline} at the time of
+ * subscription, error messages posted by the AppSink, or by a bin containing
+ * it, are signalled with onError. Errors posted by other elements are not
+ * signalled - an upstream element failing usually ends the stream with EOS,
+ * so the pipeline bus should also be monitored where the distinction
+ * matters.
+ * <p>
+ * Only one subscriber is supported at a time. The subscriber takes ownership
+ * of each Sample, and should {@link Sample#dispose() dispose} it when done.
+ * <p>
+ * This publisher installs handlers with
+ * {@link AppSink#setCallbacks(AppSink.EOS, AppSink.NEW_PREROLL, AppSink.NEW_SAMPLE)},
+ * replacing any existing handlers. They are removed again when the
+ * subscription is cancelled or completes. Samples remaining in the AppSink
+ * queue at that point are left there.
+ * <p>
+ * Requires GStreamer 1.10+
+ */
+@Gst.Since(minor = 10)
+public final class AppSinkPublisher implements Flow.Publisher<Sample> {
+
+    /**
+     * The default maximum number of samples queued in the AppSink.
+     */
+    public static final int DEFAULT_MAX_BUFFERS = 16;
+
+    private static final Logger LOG = Logger.getLogger(AppSinkPublisher.class.getName());
+
+    private final AppSink sink;
+    private final Executor executor;
+    private final int maxBuffers;
+    private final boolean drop;
+    private final AtomicReference<SinkSubscription> current = new AtomicReference<>();
+
+    /**
+     * Create a publisher for the given AppSink, queueing at most
+     * {@link #DEFAULT_MAX_BUFFERS} samples and blocking the streaming thread
+     * when the queue is full.
+     *
+     * @param sink the AppSink
+     * @param executor the executor used to signal the subscriber
+     */
+    public AppSinkPublisher(AppSink sink, Executor executor) {
+        this(sink, executor, DEFAULT_MAX_BUFFERS, false);
+    }
+
+    /**
+     * Create a publisher for the given AppSink.
+     *
+     * @param sink the AppSink
+     * @param executor the executor used to signal the subscriber
+     * @param maxBuffers the maximum number of samples queued in the AppSink
+     * while there is no demand
+     * @param drop true to drop the oldest samples when the queue is full,
+     * false to block the streaming thread
+     * @throws IllegalArgumentException if maxBuffers is not positive
+     */
+    public AppSinkPublisher(AppSink sink, Executor executor, int maxBuffers, boolean drop) {
+        Gst.checkVersion(1, 10);
+        if (maxBuffers <= 0) {
+            throw new IllegalArgumentException("Invalid max buffers " + maxBuffers);
+        }
+        this.sink = Objects.requireNonNull(sink);
+        this.executor = Objects.requireNonNull(executor);
+        this.maxBuffers = maxBuffers;
+        this.drop = drop;
+    }
+
+    /**
+     * Subscribe to the samples from the AppSink. If there is already a
+     * subscriber, the new subscriber receives onError with an
+     * {@link IllegalStateException}.
+     *
+     * @param subscriber the subscriber
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Sample> subscriber) {
+        Objects.requireNonNull(subscriber);
+        SinkSubscription subscription = new SinkSubscription(subscriber);
+        if (current.compareAndSet(null, subscription)) {
+            subscription.start();
+        } else {
+            executor.execute(() -> {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException(
+                        "AppSinkPublisher already has a subscriber"));
+            });
+        }
+    }
+
+    private final class SinkSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Sample> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+        private volatile boolean eos;
+        private volatile Throwable error;
+
+        // only accessed from the (serialized) drain task
+        private boolean subscribed;
+        private boolean done;
+
+        private Bus bus;
+        private Bus.ERROR errorListener;
+
+        private SinkSubscription(Flow.Subscriber<? super Sample> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void start() {
+            sink.set("max-buffers", maxBuffers);
+            sink.set("drop", drop);
+            sink.set("wait-on-eos", true);
+            bus = sink.getBus();
+            if (bus != null) {
+                errorListener = (source, code, message) -> {
+                    if (GSTOBJECT_API.gst_object_has_ancestor(sink, source)) {
+                        error = new GstException(source.getName() + ": " + message);
+                        signal();
+                    }
+                };
+                bus.connect(errorListener);
+            }
+            sink.setCallbacks(elem -> {
+                eos = true;
+                signal();
+            }, null, elem -> {
+                signal();
+                return FlowReturn.OK;
+            });
+            signal();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Invalid request " + n);
+            } else {
+                long r, u;
+                do {
+                    r = requested.get();
+                    if (r == Long.MAX_VALUE) {
+                        break;
+                    }
+                    u = r + n;
+                } while (!requested.compareAndSet(r, u < 0 ? Long.MAX_VALUE : u));
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            signal();
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    LOG.log(Level.WARNING, "Executor rejected AppSink delivery", ex);
+                    cancelled = true;
+                    wip.set(0);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!subscribed) {
+                    subscribed = true;
+                    try {
+                        subscriber.onSubscribe(this);
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by subscriber", t);
+                        cancelled = true;
+                    }
+                }
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (!done) {
+                if (cancelled) {
+                    unlink();
+                    return;
+                }
+                Throwable ex = error;
+                if (ex != null) {
+                    unlink();
+                    try {
+                        subscriber.onError(ex);
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by subscriber", t);
+                    }
+                    return;
+                }
+                long r = requested.get();
+                Sample sample = r == 0 ? null
+                        : sink.tryPullSample(0, TimeUnit.NANOSECONDS);
+                if (sample == null) {
+                    if (eos && sink.isEOS()) {
+                        unlink();
+                        try {
+                            subscriber.onComplete();
+                        } catch (Throwable t) {
+                            LOG.log(Level.SEVERE, "Exception thrown by subscriber", t);
+                        }
+                    }
+                    return;
+                }
+                if (r != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(sample);
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by subscriber", t);
+                    unlink();
+                    return;
+                }
+            }
+        }
+
+        private void unlink() {
+            done = true;
+            sink.clearCallbacks();
+            if (bus != null) {
+                bus.disconnect(errorListener);
+            }
+            current.compareAndSet(this, null);
+        }
+
+    }
+
+}
@@ -22,14 +22,35 @@
 package org.freedesktop.gstreamer.elements;
 
 import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
 import org.freedesktop.gstreamer.Caps;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GstCallback;
 import static org.freedesktop.gstreamer.lowlevel.AppAPI.APP_API;
+import static org.freedesktop.gstreamer.lowlevel.GlibAPI.GLIB_API;
+import static org.freedesktop.gstreamer.lowlevel.GstAPI.GST_API;
+import static org.freedesktop.gstreamer.lowlevel.GstMessageAPI.GSTMESSAGE_API;
 
 import com.sun.jna.ptr.LongByReference;
 import org.freedesktop.gstreamer.FlowReturn;
 import org.freedesktop.gstreamer.Format;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Sample;
 import org.freedesktop.gstreamer.glib.NativeEnum;
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSrcCallbacks;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSrcEnoughDataCallback;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSrcNeedDataCallback;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSrcSeekDataCallback;
+import org.freedesktop.gstreamer.lowlevel.BlockingCalls;
+import org.freedesktop.gstreamer.lowlevel.CallbackRegistry;
+import org.freedesktop.gstreamer.lowlevel.GstAPI;
+import org.freedesktop.gstreamer.lowlevel.GstAPI.GErrorStruct;
+import org.freedesktop.gstreamer.message.Message;
+
+import com.sun.jna.Pointer;
+import java.lang.ref.WeakReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A source {@link Element} that provides an easy way for applications to insert
@@ -44,7 +65,7 @@ import org.freedesktop.gstreamer.glib.NativeEnum;
  * exception to this is when pushing buffers with unknown caps, in which case no
  * caps should be set. This is typically true of file-like sources that push raw
  * byte buffers. If you don't want to explicitly set the caps, you can use
- * gst_app_src_push_sample (<em>not yet mapped</em>). This method gets the caps
+ * {@link #pushSample(Sample)}. This method gets the caps
  * associated with the sample and sets them on the appsrc replacing any
  * previously set caps (if different from sample's caps).
  * <p>
@@ -190,6 +211,41 @@ public class AppSrc extends BaseSrc {
         return APP_API.gst_app_src_get_max_bytes(this);
     }
 
+    /**
+     * Get the number of currently queued bytes inside appsrc.
+     *
+     * @return the number of currently queued bytes
+     */
+    public long getCurrentLevelBytes() {
+        return APP_API.gst_app_src_get_current_level_bytes(this);
+    }
+
+    /**
+     * Get the number of currently queued buffers inside appsrc.
+     * <p>
+     * Since GStreamer 1.20
+     *
+     * @return the number of currently queued buffers
+     */
+    @Gst.Since(minor = 20)
+    public long getCurrentLevelBuffers() {
+        Gst.checkVersion(1, 20);
+        return APP_API.gst_app_src_get_current_level_buffers(this);
+    }
+
+    /**
+     * Get the amount of currently queued time inside appsrc.
+     * <p>
+     * Since GStreamer 1.20
+     *
+     * @return the amount of currently queued time in nanoseconds
+     */
+    @Gst.Since(minor = 20)
+    public long getCurrentLevelTime() {
+        Gst.checkVersion(1, 20);
+        return APP_API.gst_app_src_get_current_level_time(this);
+    }
+
     /**
      * Configure the min and max latency in src . If min is set to -1, the
      * default latency calculations for pseudo-live sources will be used.
@@ -227,7 +283,79 @@ public class AppSrc extends BaseSrc {
      * EOS occurred.
      */
     public FlowReturn pushBuffer(Buffer buffer) {
-        return APP_API.gst_app_src_push_buffer(this, buffer);
+        if (!isBlocking()) {
+            return APP_API.gst_app_src_push_buffer(this, buffer);
+        }
+        return BlockingCalls.invoke(() -> APP_API.gst_app_src_push_buffer(this, buffer));
+    }
+
+    /**
+     * Adds a buffer list to the queue of buffers and buffer lists that the
+     * appsrc element will push to its source pad. This function takes
+     * ownership of the buffer list.
+     * <p>
+     * Pushing a list of buffers in one call is considerably cheaper than
+     * pushing each buffer individually, eg. for packetized formats such as
+     * RTP.
+     * <p>
+     * When the block property is TRUE, this function can block until free space
+     * becomes available in the queue.
+     * <p>
+     * Since GStreamer 1.14
+     *
+     * @param bufferList a {@link BufferList} to push
+     * @return GST_FLOW_OK when the buffer list was successfully queued.
+     * GST_FLOW_FLUSHING when appsrc is not PAUSED or PLAYING. GST_FLOW_EOS when
+     * EOS occurred.
+     */
+    @Gst.Since(minor = 14)
+    public FlowReturn pushBufferList(BufferList bufferList) {
+        Gst.checkVersion(1, 14);
+        if (!isBlocking()) {
+            return APP_API.gst_app_src_push_buffer_list(this, bufferList);
+        }
+        return BlockingCalls.invoke(() -> APP_API.gst_app_src_push_buffer_list(this, bufferList));
+    }
+
+    /**
+     * Extract a buffer from the provided sample and add it to the queue of
+     * buffers that the appsrc element will push to its source pad. Any
+     * previous caps that were set on appsrc will be replaced by the caps
+     * associated with the sample if not equal. The caps change is queued
+     * along with the buffer, so it applies exactly from this buffer onwards.
+     * <p>
+     * This function does not take ownership of the sample, which remains
+     * valid after the call.
+     * <p>
+     * When the block property is TRUE, this function can block until free space
+     * becomes available in the queue.
+     * <p>
+     * Since GStreamer 1.6
+     *
+     * @param sample a {@link Sample} from which the buffer and caps are taken
+     * @return GST_FLOW_OK when the buffer was successfully queued.
+     * GST_FLOW_FLUSHING when appsrc is not PAUSED or PLAYING. GST_FLOW_EOS when
+     * EOS occurred.
+     */
+    @Gst.Since(minor = 6)
+    public FlowReturn pushSample(Sample sample) {
+        Gst.checkVersion(1, 6);
+        if (!isBlocking()) {
+            return APP_API.gst_app_src_push_sample(this, sample);
+        }
+        return BlockingCalls.invoke(() -> APP_API.gst_app_src_push_sample(this, sample));
+    }
+
+    /**
+     * Clear all buffers, buffer lists and other data queued in the appsrc
+     * element, without resetting the pipeline.
+     * <p>
+     * Since GStreamer 1.10
+     */
+    @Gst.Since(minor = 10)
+    public void flushQueued() {
+        Gst.checkVersion(1, 10);
+        APP_API.gst_app_src_flush_queued(this);
     }
 
     /**
@@ -364,6 +492,49 @@ public class AppSrc extends BaseSrc {
         disconnect(SEEK_DATA.class, listener);
     }
 
+    /**
+     * Install native callbacks for the need-data, enough-data and seek-data
+     * events, instead of connecting to the corresponding signals. This is
+     * significantly cheaper than signal emission. Any of the handlers may be
+     * null, in which case the corresponding signal is emitted as usual.
+     * <p>
+     * The handlers are called on the streaming thread, and replace any
+     * handlers previously installed with this method. Only one set of handlers
+     * can be installed at a time.
+     * <p>
+     * The handlers are not used to keep this AppSrc alive. They are released
+     * when they are replaced, removed with {@link #clearCallbacks()}, or when
+     * the native element is disposed.
+     *
+     * @param needData handler for need-data, or null
+     * @param enoughData handler for enough-data, or null
+     * @param seekData handler for seek-data, or null
+     */
+    public void setCallbacks(NEED_DATA needData, ENOUGH_DATA enoughData, SEEK_DATA seekData) {
+        AppSrcCallbacks callbacks = new AppSrcCallbacks();
+        if (needData != null) {
+            callbacks.need_data = NativeCallbacks.NEED_DATA_CALLBACK;
+        }
+        if (enoughData != null) {
+            callbacks.enough_data = NativeCallbacks.ENOUGH_DATA_CALLBACK;
+        }
+        if (seekData != null) {
+            callbacks.seek_data = NativeCallbacks.SEEK_DATA_CALLBACK;
+        }
+        Pointer userData = NativeCallbacks.HANDLERS.register(
+                new NativeCallbacks(this, needData, enoughData, seekData));
+        APP_API.gst_app_src_set_callbacks(this, callbacks,
+                userData, NativeCallbacks.HANDLERS.getDestroyNotify());
+    }
+
+    /**
+     * Remove the handlers installed with
+     * {@link #setCallbacks(org.freedesktop.gstreamer.elements.AppSrc.NEED_DATA, org.freedesktop.gstreamer.elements.AppSrc.ENOUGH_DATA, org.freedesktop.gstreamer.elements.AppSrc.SEEK_DATA)}.
+     */
+    public void clearCallbacks() {
+        APP_API.gst_app_src_set_callbacks(this, new AppSrcCallbacks(), null, null);
+    }
+
     /**
      * The stream type.
      * <p>
@@ -399,4 +570,117 @@ public class AppSrc extends BaseSrc {
         }
 
     }
+
+    /**
+     * Post a stream error message for the given exception on the bus, with
+     * this AppSrc as source.
+     */
+    boolean postStreamError(Throwable throwable) {
+        String text = throwable.getMessage() != null
+                ? throwable.getMessage() : throwable.getClass().getName();
+        GErrorStruct error = GLIB_API.g_error_new_literal(GST_API.gst_stream_error_quark(),
+                GstAPI.GST_STREAM_ERROR_FAILED, text);
+        Message message = GSTMESSAGE_API.gst_message_new_error(this, error, throwable.toString());
+        GLIB_API.g_error_free(error);
+        return postMessage(message);
+    }
+
+    /**
+     * Whether a push may block, so must be offloaded from a virtual thread.
+     * Pushes only block while the "block" property is true.
+     */
+    private boolean isBlocking() {
+        return BlockingCalls.shouldOffload() && Boolean.TRUE.equals(get("block"));
+    }
+
+    /**
+     * Registry of handlers installed via gst_app_src_set_callbacks(). The
+     * native callbacks are shared by all AppSrcs, and look up the handlers
+     * using the user_data key.
+     */
+    private static final class NativeCallbacks {
+
+        private static final Logger LOG = Logger.getLogger(AppSrc.class.getName());
+        private static final CallbackRegistry<NativeCallbacks> HANDLERS
+                = new CallbackRegistry<>("AppSrcCallback");
+
+        private static final AppSrcNeedDataCallback NEED_DATA_CALLBACK = new AppSrcNeedDataCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public void callback(Pointer appsrc, int length, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers != null && handlers.needData != null) {
+                    try {
+                        handlers.needData.needData(handlers.src(appsrc), length);
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by AppSrc need data handler", t);
+                    }
+                }
+            }
+        };
+
+        private static final AppSrcEnoughDataCallback ENOUGH_DATA_CALLBACK = new AppSrcEnoughDataCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public void callback(Pointer appsrc, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers != null && handlers.enoughData != null) {
+                    try {
+                        handlers.enoughData.enoughData(handlers.src(appsrc));
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by AppSrc enough data handler", t);
+                    }
+                }
+            }
+        };
+
+        private static final AppSrcSeekDataCallback SEEK_DATA_CALLBACK = new AppSrcSeekDataCallback() {
+
+            {
+                HANDLERS.initCallback(this);
+            }
+
+            @Override
+            public boolean callback(Pointer appsrc, long offset, Pointer user_data) {
+                NativeCallbacks handlers = HANDLERS.get(user_data);
+                if (handlers == null || handlers.seekData == null) {
+                    return false;
+                }
+                try {
+                    return handlers.seekData.seekData(handlers.src(appsrc), offset);
+                } catch (Throwable t) {
+                    LOG.log(Level.SEVERE, "Exception thrown by AppSrc seek data handler", t);
+                    return false;
+                }
+            }
+        };
+
+        private final WeakReference<AppSrc> srcRef;
+        private final NEED_DATA needData;
+        private final ENOUGH_DATA enoughData;
+        private final SEEK_DATA seekData;
+
+        private NativeCallbacks(AppSrc src, NEED_DATA needData,
+                ENOUGH_DATA enoughData, SEEK_DATA seekData) {
+            this.srcRef = new WeakReference<>(src);
+            this.needData = needData;
+            this.enoughData = enoughData;
+            this.seekData = seekData;
+        }
+
+        private AppSrc src(Pointer ptr) {
+            AppSrc src = srcRef.get();
+            return src != null ? src : Natives.objectFor(ptr, AppSrc.class, true, true);
+        }
+
+    }
+
 }
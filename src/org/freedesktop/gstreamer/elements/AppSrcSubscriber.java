@@ -0,0 +1,170 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.FlowReturn;
+
+/**
+ * A {@link Flow.Subscriber} that pushes the {@link Buffer}s it receives into
+ * an {@link AppSrc}.
+ * <p>
+ * Demand is driven by the AppSrc queue level. Items are requested from the
+ * publisher when the AppSrc emits need-data, keeping at most
+ * <code>prefetch</code> requested items outstanding, and no more items are
+ * requested once it emits enough-data. The AppSrc queue therefore never
+ * exceeds its "max-bytes" limit by more than the prefetch, and
+ * {@link AppSrc#pushBuffer(Buffer)} does not need to block. The "block"
+ * property of the AppSrc should be left false.
+ * <p>
+ * When the publisher completes, {@link AppSrc#endOfStream()} is called. When
+ * the publisher signals an error, an error message is posted on the bus with
+ * the AppSrc as source. Pushing stops if the AppSrc returns
+ * {@link FlowReturn#EOS}, in which case the subscription is cancelled.
+ * <p>
+ * This subscriber installs handlers with
+ * {@link AppSrc#setCallbacks(AppSrc.NEED_DATA, AppSrc.ENOUGH_DATA, AppSrc.SEEK_DATA)},
+ * replacing any existing handlers. They are removed again when the stream
+ * terminates or {@link #cancel()} is called. Seeking is not supported, so the
+ * AppSrc stream type should be {@link AppSrc.StreamType#STREAM}.
+ * <p>
+ * A subscriber may only be subscribed once.
+ */
+public final class AppSrcSubscriber implements Flow.Subscriber<Buffer> {
+
+    /**
+     * The default maximum number of requested items outstanding.
+     */
+    public static final int DEFAULT_PREFETCH = 4;
+
+    private final AppSrc src;
+    private final int prefetch;
+    private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile boolean hungry;
+    private volatile boolean done;
+
+    /**
+     * Create a subscriber for the given AppSrc, with the default prefetch.
+     *
+     * @param src the AppSrc
+     */
+    public AppSrcSubscriber(AppSrc src) {
+        this(src, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Create a subscriber for the given AppSrc.
+     *
+     * @param src the AppSrc
+     * @param prefetch the maximum number of requested items outstanding
+     * @throws IllegalArgumentException if prefetch is not positive
+     */
+    public AppSrcSubscriber(AppSrc src, int prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Invalid prefetch " + prefetch);
+        }
+        this.src = Objects.requireNonNull(src);
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (done || !this.subscription.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        src.setCallbacks((elem, size) -> {
+            hungry = true;
+            requestMore();
+        }, elem -> hungry = false, null);
+    }
+
+    @Override
+    public void onNext(Buffer buffer) {
+        Objects.requireNonNull(buffer);
+        outstanding.decrementAndGet();
+        if (done) {
+            buffer.dispose();
+            return;
+        }
+        FlowReturn ret = src.pushBuffer(buffer);
+        if (ret == FlowReturn.EOS) {
+            cancel();
+        } else if (hungry) {
+            requestMore();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        if (terminate()) {
+            src.postStreamError(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        if (terminate()) {
+            src.endOfStream();
+        }
+    }
+
+    /**
+     * Cancel the subscription and stop pushing buffers into the AppSrc. No
+     * end-of-stream is sent.
+     */
+    public void cancel() {
+        if (terminate()) {
+            Flow.Subscription s = subscription.get();
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    private void requestMore() {
+        Flow.Subscription s = subscription.get();
+        if (s == null || done) {
+            return;
+        }
+        int current;
+        do {
+            current = outstanding.get();
+            if (current >= prefetch) {
+                return;
+            }
+        } while (!outstanding.compareAndSet(current, prefetch));
+        s.request(prefetch - current);
+    }
+
+    private synchronized boolean terminate() {
+        if (done) {
+            return false;
+        }
+        done = true;
+        hungry = false;
+        src.clearCallbacks();
+        return true;
+    }
+
+}
@@ -0,0 +1,373 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.freedesktop.gstreamer.Buffer;
+
+/**
+ * A helper that feeds the content of a {@link ReadableByteChannel} or
+ * {@link InputStream} into an {@link AppSrc}.
+ * <p>
+ * Data is read on a background pump thread directly into a pool of direct
+ * (native) ByteBuffers, which are wrapped with
+ * {@link Buffer#wrap(java.nio.ByteBuffer, java.util.function.Consumer)} and
+ * recycled once GStreamer releases them. The pump reads ahead up to the pool
+ * size while the AppSrc has enough data, pushes while the AppSrc needs data,
+ * and calls {@link AppSrc#endOfStream()} at the end of the channel. Read
+ * errors, and runtime exceptions thrown by the pump, are posted as error
+ * messages on the bus.
+ * <p>
+ * The channel must be in blocking mode.
+ * <p>
+ * If the channel is a {@link SeekableByteChannel}, the size of the AppSrc is
+ * set to the channel size, and seek requests are supported. Unless the
+ * AppSrc is already configured for {@link AppSrc.StreamType#SEEKABLE}, its
+ * stream type is set to {@link AppSrc.StreamType#RANDOM_ACCESS}, in which
+ * case a single buffer of exactly the requested size is read and pushed for
+ * each request. Other channels use {@link AppSrc.StreamType#STREAM}.
+ * <p>
+ * The AppSrc must use the default {@link org.freedesktop.gstreamer.Format#BYTES}
+ * format.
+ */
+public final class ChannelSource implements AutoCloseable {
+
+    /**
+     * The default size of each pooled buffer.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * The default number of pooled buffers.
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    private final ReadableByteChannel channel;
+    private final SeekableByteChannel seekable;
+    private final int chunkSize;
+    private final int poolSize;
+    private final BlockingQueue<ByteBuffer> free;
+    private final Deque<Buffer> ready = new ArrayDeque<>();
+
+    private int allocated;
+    private AppSrc appsrc;
+    private boolean pull;
+    private Thread pump;
+
+    private boolean hungry;
+    private int requested;
+    private long position;
+    private long pendingSeek = -1;
+    private int generation;
+    private boolean eof;
+    private boolean eosSent;
+    private boolean closed;
+
+    /**
+     * Create a ChannelSource for the given channel, with the default chunk
+     * and pool sizes.
+     *
+     * @param channel channel to read from
+     */
+    public ChannelSource(ReadableByteChannel channel) {
+        this(channel, DEFAULT_CHUNK_SIZE, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Create a ChannelSource for the given input stream, with the default
+     * chunk and pool sizes. A {@link FileInputStream} is read through its
+     * (seekable) channel.
+     *
+     * @param in input stream to read from
+     */
+    public ChannelSource(InputStream in) {
+        this(in instanceof FileInputStream
+                ? ((FileInputStream) in).getChannel() : Channels.newChannel(in));
+    }
+
+    /**
+     * Create a ChannelSource for the given channel.
+     *
+     * @param channel channel to read from
+     * @param chunkSize size of each pooled buffer
+     * @param poolSize number of pooled buffers, which limits the amount of
+     * data read ahead or queued in the pipeline
+     * @throws IllegalArgumentException if chunkSize or poolSize are not
+     * positive, or the channel is in non-blocking mode
+     */
+    public ChannelSource(ReadableByteChannel channel, int chunkSize, int poolSize) {
+        if (chunkSize <= 0 || poolSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize
+                    + " or pool size " + poolSize);
+        }
+        if (channel instanceof SelectableChannel
+                && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException("Channel is in non-blocking mode");
+        }
+        this.channel = channel;
+        this.seekable = channel instanceof SeekableByteChannel
+                ? (SeekableByteChannel) channel : null;
+        this.chunkSize = chunkSize;
+        this.poolSize = poolSize;
+        this.free = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Attach this source to the given AppSrc, and start the pump thread. The
+     * handlers required to push data are installed with
+     * {@link AppSrc#setCallbacks(AppSrc.NEED_DATA, AppSrc.ENOUGH_DATA, AppSrc.SEEK_DATA)}.
+     * <p>
+     * This should be called before the AppSrc is started.
+     *
+     * @param appsrc the AppSrc to feed
+     * @throws IOException if the channel size cannot be queried
+     * @throws IllegalStateException if this source is already attached or
+     * closed
+     */
+    public synchronized void attach(AppSrc appsrc) throws IOException {
+        if (this.appsrc != null || closed) {
+            throw new IllegalStateException("ChannelSource is already attached or closed");
+        }
+        if (seekable != null) {
+            if (appsrc.getStreamType() != AppSrc.StreamType.SEEKABLE) {
+                appsrc.setStreamType(AppSrc.StreamType.RANDOM_ACCESS);
+                pull = true;
+            }
+            appsrc.setSize(seekable.size());
+            position = seekable.position();
+        } else {
+            appsrc.setStreamType(AppSrc.StreamType.STREAM);
+            appsrc.setSize(-1);
+        }
+        this.appsrc = appsrc;
+        appsrc.setCallbacks((elem, size) -> onNeedData(size),
+                elem -> onEnoughData(),
+                seekable != null ? (elem, offset) -> onSeekData(offset) : null);
+        pump = new Thread(this::pump, "ChannelSource pump");
+        pump.setDaemon(true);
+        pump.start();
+    }
+
+    /**
+     * Detach this source from its AppSrc, stop the pump thread and close the
+     * channel. Buffers already pushed into the AppSrc remain valid.
+     *
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        AppSrc src;
+        Thread thread;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            src = appsrc;
+            thread = pump;
+            discardReady();
+            notifyAll();
+        }
+        if (src != null) {
+            src.clearCallbacks();
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+        channel.close();
+    }
+
+    private synchronized void onNeedData(int size) {
+        hungry = true;
+        requested = size;
+        notifyAll();
+    }
+
+    private synchronized void onEnoughData() {
+        hungry = false;
+    }
+
+    private synchronized boolean onSeekData(long offset) {
+        if (closed || offset < 0) {
+            return false;
+        }
+        discardReady();
+        pendingSeek = offset;
+        position = offset;
+        generation++;
+        eof = false;
+        eosSent = false;
+        notifyAll();
+        return true;
+    }
+
+    private void discardReady() {
+        Buffer buffer;
+        while ((buffer = ready.poll()) != null) {
+            buffer.dispose();
+        }
+    }
+
+    private void pump() {
+        try {
+            while (true) {
+                Buffer push = null;
+                boolean sendEos = false;
+                int length;
+                long seekTo;
+                long readPosition;
+                int readGeneration;
+                synchronized (this) {
+                    while (true) {
+                        if (closed) {
+                            return;
+                        }
+                        if (hungry && !ready.isEmpty()) {
+                            push = ready.poll();
+                            if (pull) {
+                                hungry = false;
+                            }
+                            break;
+                        }
+                        if (hungry && eof && !eosSent) {
+                            sendEos = true;
+                            eosSent = true;
+                            break;
+                        }
+                        boolean read = !eof && (pull
+                                ? hungry && ready.isEmpty()
+                                : ready.size() < poolSize);
+                        if (read) {
+                            break;
+                        }
+                        wait();
+                    }
+                    length = pull && requested > 0 ? requested : chunkSize;
+                    seekTo = pendingSeek;
+                    pendingSeek = -1;
+                    readPosition = position;
+                    readGeneration = generation;
+                }
+                if (push != null || sendEos) {
+                    synchronized (this) {
+                        // drop data polled before a seek or close; pushing
+                        // under the lock keeps seek-data from running until
+                        // the push is done, and does not block as the pump
+                        // only pushes while the AppSrc needs data
+                        if (readGeneration != generation || closed) {
+                            if (push != null) {
+                                push.dispose();
+                            }
+                        } else if (push != null) {
+                            appsrc.pushBuffer(push);
+                        } else {
+                            appsrc.endOfStream();
+                        }
+                    }
+                } else {
+                    if (seekTo >= 0) {
+                        seekable.position(seekTo);
+                    }
+                    Buffer buffer = read(length, readPosition);
+                    synchronized (this) {
+                        if (readGeneration != generation || closed) {
+                            if (buffer != null) {
+                                buffer.dispose();
+                            }
+                        } else if (buffer == null) {
+                            eof = true;
+                        } else {
+                            position += buffer.getSize();
+                            ready.add(buffer);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            // closed
+        } catch (IOException | RuntimeException ex) {
+            boolean report;
+            synchronized (this) {
+                report = !closed;
+            }
+            if (report) {
+                appsrc.postStreamError(ex);
+            }
+        }
+    }
+
+    /**
+     * Read a buffer of at most the given length from the channel, and set
+     * its offsets from the given position. Returns null at the end of the
+     * channel.
+     */
+    Buffer read(int length, long position) throws IOException, InterruptedException {
+        boolean pooled = length <= chunkSize;
+        ByteBuffer data = pooled ? acquire() : ByteBuffer.allocateDirect(length);
+        data.limit(length);
+        int n;
+        while ((n = channel.read(data)) >= 0 && data.hasRemaining()) {
+            if (n > 0 && !pull && seekable == null) {
+                break;
+            } else if (n == 0 && channel instanceof SelectableChannel
+                    && !((SelectableChannel) channel).isBlocking()) {
+                throw new IOException("Channel is in non-blocking mode");
+            }
+        }
+        data.flip();
+        if (!data.hasRemaining()) {
+            if (pooled) {
+                release(data);
+            }
+            return null;
+        }
+        Buffer buffer = Buffer.wrap(data, pooled ? this::release : null);
+        buffer.setOffset(position);
+        buffer.setOffsetEnd(position + data.remaining());
+        return buffer;
+    }
+
+    private ByteBuffer acquire() throws InterruptedException {
+        ByteBuffer data = free.poll();
+        if (data == null) {
+            synchronized (free) {
+                if (allocated < poolSize) {
+                    allocated++;
+                    return ByteBuffer.allocateDirect(chunkSize);
+                }
+            }
+            data = free.take();
+        }
+        return data;
+    }
+
+    private void release(ByteBuffer data) {
+        data.clear();
+        free.offer(data);
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+/**
+ * Interrelated interfaces for establishing flow-controlled components, in
+ * which {@link Publisher}s produce items consumed by one or more
+ * {@link Subscriber}s, each managed by a {@link Subscription}.
+ * <p>
+ * These interfaces mirror the shape and contract of
+ * {@code java.util.concurrent.Flow} (and the Reactive Streams
+ * specification), which is not available on the Java 8 baseline of these
+ * bindings. Adapting to and from the JDK interfaces is a matter of simple
+ * delegation.
+ *
+ * @see AppSinkPublisher
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    /**
+     * A producer of items received by subscribers.
+     *
+     * @param <T> the published item type
+     */
+    @FunctionalInterface
+    public static interface Publisher<T> {
+
+        /**
+         * Adds the given subscriber if possible. If the subscriber cannot be
+         * added, its onError method is invoked.
+         *
+         * @param subscriber the subscriber
+         * @throws NullPointerException if subscriber is null
+         */
+        public void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items. The methods are invoked in strict sequential
+     * order for each subscription.
+     *
+     * @param <T> the subscribed item type
+     */
+    public static interface Subscriber<T> {
+
+        /**
+         * Invoked prior to invoking any other subscriber methods for the
+         * given subscription. No items are received until
+         * {@link Subscription#request(long)} is invoked.
+         *
+         * @param subscription a new subscription
+         */
+        public void onSubscribe(Subscription subscription);
+
+        /**
+         * Invoked with the next item of the subscription.
+         *
+         * @param item the item
+         */
+        public void onNext(T item);
+
+        /**
+         * Invoked upon an unrecoverable error. No other subscriber methods
+         * are invoked afterwards.
+         *
+         * @param throwable the exception
+         */
+        public void onError(Throwable throwable);
+
+        /**
+         * Invoked when no more items will be received. No other subscriber
+         * methods are invoked afterwards.
+         */
+        public void onComplete();
+    }
+
+    /**
+     * Message control linking a {@link Publisher} and {@link Subscriber}.
+     */
+    public static interface Subscription {
+
+        /**
+         * Adds the given number of items to the current unfulfilled demand
+         * for this subscription. If n is less than or equal to zero, the
+         * subscriber will receive an onError signal with an
+         * {@link IllegalArgumentException}.
+         *
+         * @param n the increment of demand
+         */
+        public void request(long n);
+
+        /**
+         * Causes the subscriber to (eventually) stop receiving items.
+         */
+        public void cancel();
+    }
+
+}
@@ -0,0 +1,261 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.FlowReturn;
+
+/**
+ * A helper that feeds the content of a file into an {@link AppSrc} as
+ * zero-copy {@link Buffer}s wrapping memory-mapped regions of the file.
+ * <p>
+ * The file is mapped in windows using {@link FileChannel#map}, and each
+ * buffer pushed into the AppSrc wraps a segment of the current window with
+ * {@link Buffer#wrap(java.nio.ByteBuffer)}. No data is copied on the Java
+ * side, so throughput is bounded by the page cache rather than by memory
+ * copies. Each mapped window remains valid for as long as GStreamer holds
+ * any buffer wrapping it.
+ * <p>
+ * Once attached with {@link #attach(AppSrc)}, data is pushed in response to
+ * the AppSrc <code>need-data</code> signal, and pushing stops on the
+ * <code>enough-data</code> signal. The <code>seek-data</code> signal
+ * repositions the source within the file. In
+ * {@link AppSrc.StreamType#RANDOM_ACCESS} mode, the default, a single buffer
+ * of exactly the requested size is pushed for each <code>need-data</code>
+ * signal. In {@link AppSrc.StreamType#SEEKABLE} mode, buffers of the
+ * configured segment size are pushed until the AppSrc queue is full.
+ * <p>
+ * The AppSrc must use the default {@link org.freedesktop.gstreamer.Format#BYTES}
+ * format.
+ */
+public final class MappedFileSource implements AutoCloseable {
+
+    /**
+     * The default size of buffers pushed in seekable mode.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024;
+
+    /**
+     * The default size of each mapped window of the file.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int segmentSize;
+    private final int windowSize;
+
+    private AppSrc appsrc;
+    private AppSrc.StreamType streamType;
+    private AppSrc.NEED_DATA needDataListener;
+    private AppSrc.ENOUGH_DATA enoughDataListener;
+    private AppSrc.SEEK_DATA seekDataListener;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private boolean hungry;
+    private boolean eos;
+
+    /**
+     * Create a MappedFileSource for the given file, with the default segment
+     * and window sizes.
+     *
+     * @param file path to file
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedFileSource(Path file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Create a MappedFileSource for the given file.
+     *
+     * @param file path to file
+     * @param segmentSize size of buffers pushed in seekable mode
+     * @param windowSize size of each mapped window of the file - must not be
+     * smaller than segmentSize
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if segmentSize or windowSize are not
+     * valid
+     */
+    public MappedFileSource(Path file, int segmentSize, int windowSize) throws IOException {
+        if (segmentSize <= 0 || windowSize < segmentSize) {
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize
+                    + " or window size " + windowSize);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.segmentSize = segmentSize;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Get the size of the file in bytes.
+     *
+     * @return file size
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Get the position in the file of the next buffer to be pushed.
+     *
+     * @return position in bytes
+     */
+    public synchronized long getPosition() {
+        return position;
+    }
+
+    /**
+     * Attach this source to the given AppSrc. The size of the AppSrc is set to
+     * the file size, and the signal listeners required to push data are
+     * connected. If the AppSrc is not already configured for
+     * {@link AppSrc.StreamType#SEEKABLE} then its stream type is set to
+     * {@link AppSrc.StreamType#RANDOM_ACCESS}.
+     * <p>
+     * This should be called before the AppSrc is started.
+     *
+     * @param appsrc the AppSrc to feed
+     * @throws IllegalStateException if this source is already attached
+     */
+    public synchronized void attach(AppSrc appsrc) {
+        if (this.appsrc != null) {
+            throw new IllegalStateException("MappedFileSource is already attached");
+        }
+        AppSrc.StreamType type = appsrc.getStreamType();
+        if (type != AppSrc.StreamType.SEEKABLE) {
+            type = AppSrc.StreamType.RANDOM_ACCESS;
+            appsrc.setStreamType(type);
+        }
+        appsrc.setSize(fileSize);
+        this.appsrc = appsrc;
+        this.streamType = type;
+        needDataListener = (elem, size) -> onNeedData(size);
+        enoughDataListener = elem -> onEnoughData();
+        seekDataListener = (elem, offset) -> onSeekData(offset);
+        appsrc.connect(needDataListener);
+        appsrc.connect(enoughDataListener);
+        appsrc.connect(seekDataListener);
+    }
+
+    /**
+     * Detach this source from its AppSrc, and close the file. Buffers already
+     * pushed into the AppSrc remain valid.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        AppSrc src;
+        synchronized (this) {
+            src = appsrc;
+            appsrc = null;
+            window = null;
+        }
+        if (src != null) {
+            src.disconnect(needDataListener);
+            src.disconnect(enoughDataListener);
+            src.disconnect(seekDataListener);
+        }
+        channel.close();
+    }
+
+    private void onNeedData(int size) {
+        AppSrc src;
+        boolean pull;
+        synchronized (this) {
+            src = appsrc;
+            pull = streamType == AppSrc.StreamType.RANDOM_ACCESS;
+            hungry = true;
+        }
+        if (src == null) {
+            return;
+        }
+        int length = pull && size > 0 ? size : segmentSize;
+        while (true) {
+            Buffer buffer;
+            synchronized (this) {
+                if (!hungry || eos || appsrc != src) {
+                    return;
+                }
+                buffer = nextSegment(length);
+                if (buffer == null) {
+                    eos = true;
+                }
+            }
+            if (buffer == null) {
+                src.endOfStream();
+                return;
+            }
+            FlowReturn ret = src.pushBuffer(buffer);
+            if (ret != FlowReturn.OK || pull) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void onEnoughData() {
+        hungry = false;
+    }
+
+    private synchronized boolean onSeekData(long offset) {
+        if (offset < 0 || offset > fileSize) {
+            return false;
+        }
+        position = offset;
+        eos = false;
+        return true;
+    }
+
+    /**
+     * Wrap the next segment of the file, of at most the given length, and
+     * advance the position. Returns null at the end of the file.
+     */
+    synchronized Buffer nextSegment(int length) {
+        if (position >= fileSize) {
+            return null;
+        }
+        int size = (int) Math.min(length, fileSize - position);
+        long windowEnd = windowStart + (window == null ? 0 : window.capacity());
+        if (window == null || position < windowStart || position + size > windowEnd) {
+            long mapSize = Math.min(Math.max(windowSize, size), fileSize - position);
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            windowStart = position;
+        }
+        int offset = (int) (position - windowStart);
+        ByteBuffer segment = window.duplicate();
+        segment.position(offset).limit(offset + size);
+        Buffer buffer = Buffer.wrap(segment);
+        buffer.setOffset(position);
+        buffer.setOffsetEnd(position + size);
+        position += size;
+        return buffer;
+    }
+
+}
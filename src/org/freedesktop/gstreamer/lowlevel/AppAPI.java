@@ -21,6 +21,7 @@
 package org.freedesktop.gstreamer.lowlevel;
 
 import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
 import org.freedesktop.gstreamer.Caps;
 import org.freedesktop.gstreamer.FlowReturn;
 import org.freedesktop.gstreamer.Sample;
@@ -29,7 +30,12 @@ import org.freedesktop.gstreamer.elements.AppSrc;
 import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
 import org.freedesktop.gstreamer.lowlevel.annotations.Invalidate;
 
+import com.sun.jna.Callback;
+import com.sun.jna.Pointer;
 import com.sun.jna.ptr.LongByReference;
+import java.util.Arrays;
+import java.util.List;
+import org.freedesktop.gstreamer.lowlevel.GlibAPI.GDestroyNotify;
 
 /**
  *
@@ -57,11 +63,56 @@ public interface AppAPI extends com.sun.jna.Library {
     void gst_app_src_set_latency(AppSrc appsrc, long min, long max);
     void gst_app_src_get_latency(AppSrc appsrc, LongByReference min, LongByReference max);
 
+    // since 1.10
     void gst_app_src_flush_queued(AppSrc appsrc);
+
+    long gst_app_src_get_current_level_bytes(AppSrc appsrc);
+    // since 1.20
+    long gst_app_src_get_current_level_buffers(AppSrc appsrc);
+    long gst_app_src_get_current_level_time(AppSrc appsrc);
     
     FlowReturn gst_app_src_push_buffer(AppSrc appsrc, @Invalidate Buffer buffer);
+    // since 1.14
+    FlowReturn gst_app_src_push_buffer_list(AppSrc appsrc, @Invalidate BufferList bufferList);
+    // since 1.6
+    FlowReturn gst_app_src_push_sample(AppSrc appsrc, Sample sample);
     FlowReturn gst_app_src_end_of_stream(AppSrc appsrc);
 
+    void gst_app_src_set_callbacks(AppSrc appsrc, AppSrcCallbacks callbacks,
+            Pointer user_data, GDestroyNotify notify);
+
+    public static interface AppSrcNeedDataCallback extends Callback {
+        public void callback(Pointer appsrc, int length, Pointer user_data);
+    }
+
+    public static interface AppSrcEnoughDataCallback extends Callback {
+        public void callback(Pointer appsrc, Pointer user_data);
+    }
+
+    public static interface AppSrcSeekDataCallback extends Callback {
+        public boolean callback(Pointer appsrc, long offset, Pointer user_data);
+    }
+
+    /**
+     * GstAppSrcCallbacks
+     */
+    public static final class AppSrcCallbacks extends com.sun.jna.Structure {
+
+        public AppSrcNeedDataCallback need_data;
+        public AppSrcEnoughDataCallback enough_data;
+        public AppSrcSeekDataCallback seek_data;
+
+        /*< private >*/
+        public Pointer[] _gst_reserved = new Pointer[GstAPI.GST_PADDING];
+
+        @Override
+        protected List<String> getFieldOrder() {
+            return Arrays.asList(new String[]{
+                "need_data", "enough_data", "seek_data", "_gst_reserved"
+            });
+        }
+    }
+
     // AppSink functions
     GType gst_app_sink_get_type();
 
@@ -70,6 +121,45 @@ public interface AppAPI extends com.sun.jna.Library {
 
     boolean gst_app_sink_is_eos(AppSink appsink);
 
+    // since 1.12
+    void gst_app_sink_set_buffer_list_support(AppSink appsink, boolean enable_lists);
+    boolean gst_app_sink_get_buffer_list_support(AppSink appsink);
+
     @CallerOwnsReturn Sample gst_app_sink_pull_preroll(AppSink appsink);
     @CallerOwnsReturn Sample gst_app_sink_pull_sample(AppSink appsink);
+    // since 1.10
+    @CallerOwnsReturn Sample gst_app_sink_try_pull_preroll(AppSink appsink, long timeout);
+    @CallerOwnsReturn Sample gst_app_sink_try_pull_sample(AppSink appsink, long timeout);
+
+    void gst_app_sink_set_callbacks(AppSink appsink, AppSinkCallbacks callbacks,
+            Pointer user_data, GDestroyNotify notify);
+
+    public static interface AppSinkEosCallback extends Callback {
+        public void callback(Pointer appsink, Pointer user_data);
+    }
+
+    public static interface AppSinkFlowCallback extends Callback {
+        public int callback(Pointer appsink, Pointer user_data);
+    }
+
+    /**
+     * GstAppSinkCallbacks - the new_event and propose_allocation fields added
+     * in later releases are left in the padding, and always NULL.
+     */
+    public static final class AppSinkCallbacks extends com.sun.jna.Structure {
+
+        public AppSinkEosCallback eos;
+        public AppSinkFlowCallback new_preroll;
+        public AppSinkFlowCallback new_sample;
+
+        /*< private >*/
+        public Pointer[] _gst_reserved = new Pointer[GstAPI.GST_PADDING];
+
+        @Override
+        protected List<String> getFieldOrder() {
+            return Arrays.asList(new String[]{
+                "eos", "new_preroll", "new_sample", "_gst_reserved"
+            });
+        }
+    }
 }
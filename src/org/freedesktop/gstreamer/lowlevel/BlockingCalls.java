@@ -0,0 +1,239 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Support for native calls that may block for a long time, such as pulling
+ * samples from an appsink or waiting for a state change.
+ * <p>
+ * A virtual thread blocked inside a native call pins its carrier thread.
+ * Calls with a timeout, see {@link #invokeTimed}, are therefore made from a
+ * virtual thread as a sequence of non-blocking native calls, parking the
+ * virtual thread in between. Calls without a timeout, see {@link #invoke},
+ * are executed on a platform thread while the virtual thread parks until the
+ * result is available. Calls from platform threads are always executed
+ * directly. Virtual threads are detected reflectively, so this has no effect
+ * on runtimes without them.
+ * <p>
+ * Offloading can be disabled with the system property
+ * <code>gstreamer.disableBlockingCallOffload</code>.
+ */
+public final class BlockingCalls {
+
+    private static final boolean OFFLOAD
+            = !Boolean.getBoolean("gstreamer.disableBlockingCallOffload");
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+    private static final long MIN_PARK = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long MAX_PARK = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private BlockingCalls() {
+    }
+
+    /**
+     * A native call taking a timeout in nanoseconds.
+     *
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface TimedCall<T> {
+
+        /**
+         * Make the call.
+         *
+         * @param timeout timeout in nanoseconds, or zero to not wait
+         * @return the result of the call
+         */
+        T call(long timeout);
+    }
+
+    /**
+     * Query whether blocking calls made from the current thread are offloaded
+     * or polled, ie. whether the current thread is a virtual thread and
+     * offloading is enabled. Callers may use this to make the native call
+     * directly, without allocating, when it returns false.
+     *
+     * @return true if blocking calls should be made through this class
+     */
+    public static boolean shouldOffload() {
+        return OFFLOAD && isVirtualThread();
+    }
+
+    /**
+     * Execute the given blocking call, offloading it to a platform thread if
+     * the current thread is a virtual thread.
+     * <p>
+     * An offloaded call cannot be interrupted. If the current thread is
+     * interrupted while waiting, the call is still waited for, and the
+     * interrupt status is restored on return.
+     * <p>
+     * Calls that support a timeout should use {@link #invokeTimed} instead,
+     * which does not occupy a platform thread while waiting.
+     *
+     * @param <T> result type
+     * @param call the blocking call
+     * @return the result of the call
+     */
+    public static <T> T invoke(Supplier<T> call) {
+        return invoke(call, shouldOffload());
+    }
+
+    /**
+     * Execute the given call with a timeout. If the current thread is a
+     * virtual thread, the call is made with a zero timeout, repeating with
+     * the virtual thread parked in between for as long as the result is
+     * pending and the timeout has not expired. Otherwise, the call is made
+     * directly with the given timeout.
+     * <p>
+     * A polled call cannot be interrupted. If the current thread is
+     * interrupted while waiting, the call is still waited for, and the
+     * interrupt status is restored on return.
+     *
+     * @param <T> result type
+     * @param call the call
+     * @param timeout timeout in nanoseconds, or negative to wait indefinitely
+     * @param pending tests whether a result means the call timed out and
+     * should be repeated
+     * @return the result of the last call
+     */
+    public static <T> T invokeTimed(TimedCall<T> call, long timeout,
+            Predicate<? super T> pending) {
+        return invokeTimed(call, timeout, pending, shouldOffload());
+    }
+
+    /**
+     * Query whether the current thread is a virtual thread.
+     *
+     * @return true if the current thread is virtual
+     */
+    public static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    static <T> T invoke(Supplier<T> call, boolean offload) {
+        if (!offload) {
+            return call.get();
+        }
+        Future<T> future = Pool.EXECUTOR.submit(call::get);
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static <T> T invokeTimed(TimedCall<T> call, long timeout,
+            Predicate<? super T> pending, boolean poll) {
+        if (!poll || timeout == 0) {
+            return call.call(timeout);
+        }
+        long deadline = System.nanoTime() + timeout;
+        long park = MIN_PARK;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                T result = call.call(0);
+                if (!pending.test(result)) {
+                    return result;
+                }
+                long remaining = timeout < 0 ? park : deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return result;
+                }
+                LockSupport.parkNanos(Math.min(park, remaining));
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                }
+                park = Math.min(park * 2, MAX_PARK);
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class,
+                    "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private static final class Pool {
+
+        private static final ExecutorService EXECUTOR = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            ThreadFactory factory = new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger(0);
+
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread t = new Thread(task,
+                            "gstreamer blocking call thread " + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+            // unbounded, so a call never waits behind another blocked call
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+                    30, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+        }
+
+    }
+
+}
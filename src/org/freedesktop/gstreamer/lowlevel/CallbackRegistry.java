@@ -0,0 +1,143 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import com.sun.jna.Callback;
+import com.sun.jna.CallbackThreadInitializer;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.freedesktop.gstreamer.lowlevel.GlibAPI.GDestroyNotify;
+
+/**
+ * Registry of Java objects passed to native code as callback user data.
+ * <p>
+ * Native callbacks are shared, static instances, and the user data passed to
+ * GStreamer is a key into the registry rather than a real pointer, so
+ * registered objects are kept reachable without being pinned to native
+ * memory. Entries are removed by the destroy notify returned from
+ * {@link #getDestroyNotify()}, which GStreamer calls once the user data is no
+ * longer required.
+ *
+ * @param <T> type of registered object
+ */
+public final class CallbackRegistry<T> {
+
+    private static final Logger LOG = Logger.getLogger(CallbackRegistry.class.getName());
+    private static final AtomicLong KEYS = new AtomicLong();
+
+    private final ConcurrentMap<Long, T> entries = new ConcurrentHashMap<>();
+    private final CallbackThreadInitializer threadInitializer;
+    private final GDestroyNotify notify;
+
+    /**
+     * Create a registry.
+     *
+     * @param threadName name of native threads attached by callbacks
+     */
+    public CallbackRegistry(String threadName) {
+        this(threadName, null);
+    }
+
+    /**
+     * Create a registry.
+     *
+     * @param threadName name of native threads attached by callbacks
+     * @param onRemove called with each object removed by the destroy notify,
+     * or null
+     */
+    public CallbackRegistry(String threadName, Consumer<? super T> onRemove) {
+        this.threadInitializer = new CallbackThreadInitializer(true,
+                Boolean.getBoolean("glib.detachCallbackThreads"),
+                threadName);
+        this.notify = initCallback(new GDestroyNotify() {
+            @Override
+            public void callback(Pointer data) {
+                T value = entries.remove(Pointer.nativeValue(data));
+                if (value != null && onRemove != null) {
+                    try {
+                        onRemove.accept(value);
+                    } catch (Throwable t) {
+                        LOG.log(Level.SEVERE, "Exception thrown by destroy notify", t);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Set the thread initializer of this registry on the given native
+     * callback, so that callback threads are named and attached consistently.
+     *
+     * @param <C> callback type
+     * @param callback native callback
+     * @return callback
+     */
+    public <C extends Callback> C initCallback(C callback) {
+        Native.setCallbackThreadInitializer(callback, threadInitializer);
+        return callback;
+    }
+
+    /**
+     * Register an object, returning the user data to pass to native code
+     * along with {@link #getDestroyNotify()}.
+     *
+     * @param value object to register
+     * @return user data key
+     */
+    public Pointer register(T value) {
+        long key = KEYS.incrementAndGet();
+        entries.put(key, value);
+        return new Pointer(key);
+    }
+
+    /**
+     * Get the object registered with the given user data.
+     *
+     * @param userData user data key
+     * @return registered object, or null
+     */
+    public T get(Pointer userData) {
+        return entries.get(Pointer.nativeValue(userData));
+    }
+
+    /**
+     * Remove the object registered with the given user data, without calling
+     * the remove handler. This should only be used if the user data was never
+     * passed to native code successfully.
+     *
+     * @param userData user data key
+     * @return removed object, or null
+     */
+    public T remove(Pointer userData) {
+        return entries.remove(Pointer.nativeValue(userData));
+    }
+
+    /**
+     * Get the destroy notify that removes entries from this registry.
+     *
+     * @return destroy notify
+     */
+    public GDestroyNotify getDestroyNotify() {
+        return notify;
+    }
+
+}
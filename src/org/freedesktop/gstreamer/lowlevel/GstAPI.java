@@ -48,6 +48,9 @@ public interface GstAPI extends Library {
     boolean gst_segtrap_is_enabled();
     void gst_segtrap_set_enabled(boolean enabled);
     void gst_deinit();
+
+    int GST_STREAM_ERROR_FAILED = 1;
+    int gst_stream_error_quark();
     
     /**
     * @see https://cgit.freedesktop.org/gstreamer/gstreamer/tree/gst/gstsegment.h?h=1.8
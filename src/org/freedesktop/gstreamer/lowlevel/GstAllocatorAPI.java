@@ -0,0 +1,43 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import org.freedesktop.gstreamer.Allocator;
+import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * GstAllocator methods
+ * @see https://gitlab.freedesktop.org/gstreamer/gstreamer/-/blob/main/subprojects/gstreamer/gst/gstallocator.h
+ */
+public interface GstAllocatorAPI extends com.sun.jna.Library {
+
+    GstAllocatorAPI GSTALLOCATOR_API = GstNative.load(GstAllocatorAPI.class);
+
+    /**
+     * The name of the default system memory allocator.
+     */
+    public static final String GST_ALLOCATOR_SYSMEM = "SystemMemory";
+
+    GType gst_allocator_get_type();
+
+    @CallerOwnsReturn Allocator gst_allocator_find(String name);
+
+    @CallerOwnsReturn Pointer ptr_gst_allocator_alloc(Allocator allocator, NativeLong size, /* GstAllocationParams * */ Pointer params);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import org.freedesktop.gstreamer.Allocator;
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * GStreamer allocators library methods
+ * @see https://gitlab.freedesktop.org/gstreamer/gstreamer/-/blob/main/subprojects/gst-plugins-base/gst-libs/gst/allocators/gstfdmemory.h
+ */
+public interface GstAllocatorsAPI extends com.sun.jna.Library {
+
+    GstAllocatorsAPI GSTALLOCATORS_API = GstNative.load("gstallocators", GstAllocatorsAPI.class);
+
+    /**
+     * The memory type of memory created by an fd allocator.
+     */
+    public static final String GST_ALLOCATOR_FD = "fd";
+
+    GType gst_fd_allocator_get_type();
+
+    @CallerOwnsReturn Pointer ptr_gst_fd_allocator_new();
+    @CallerOwnsReturn Pointer ptr_gst_fd_allocator_alloc(Allocator allocator, int fd, NativeLong size, int flags);
+
+    boolean gst_is_fd_memory(MemoryBlock mem);
+    int gst_fd_memory_get_fd(MemoryBlock mem);
+
+}
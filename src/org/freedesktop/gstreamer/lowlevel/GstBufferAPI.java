@@ -20,12 +20,17 @@
 
 package org.freedesktop.gstreamer.lowlevel;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
 import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.lowlevel.GlibAPI.GDestroyNotify;
 import org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.MiniObjectStruct;
 import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
+import org.freedesktop.gstreamer.lowlevel.annotations.IncRef;
+import org.freedesktop.gstreamer.lowlevel.annotations.Invalidate;
 
 import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
@@ -45,6 +50,7 @@ public interface GstBufferAPI extends com.sun.jna.Library {
     public static final int GST_LOCK_FLAG_WRITE = (1 << 1);
     public static final int GST_MAP_READ = GST_LOCK_FLAG_READ;
     public static final int GST_MAP_WRITE = GST_LOCK_FLAG_WRITE;
+    public static final int GST_MEMORY_FLAG_READONLY = (1 << 1);
     
     /**
     * @see https://cgit.freedesktop.org/gstreamer/gstreamer/tree/gst/gstmemory.h?h=1.8
@@ -90,6 +96,14 @@ public interface GstBufferAPI extends com.sun.jna.Library {
                 "user_data", "_gst_reserved"
             });
         }
+
+        public int dataOffset() {
+            return fieldOffset("data");
+        }
+
+        public int sizeOffset() {
+            return fieldOffset("size");
+        }
     }
     
     GType gst_buffer_get_type();
@@ -99,13 +113,32 @@ public interface GstBufferAPI extends com.sun.jna.Library {
     @CallerOwnsReturn Buffer gst_buffer_new_allocate(Pointer allocator, int size, Pointer params);
     @CallerOwnsReturn Pointer ptr_gst_buffer_new();
     @CallerOwnsReturn Pointer ptr_gst_buffer_new_allocate(Pointer allocator, int size, Pointer params);
+    @CallerOwnsReturn Pointer ptr_gst_buffer_new_wrapped_full(int flags, Pointer data, NativeLong maxsize,
+            NativeLong offset, NativeLong size, Pointer user_data, GDestroyNotify notify);
     
+    /* copy, sub-buffers and concatenation */
+    @CallerOwnsReturn Pointer ptr_gst_buffer_copy_region(Buffer parent, int flags, NativeLong offset, NativeLong size);
+    @CallerOwnsReturn Pointer ptr_gst_buffer_append(@IncRef Buffer buf1, @IncRef Buffer buf2);
+    @CallerOwnsReturn Pointer ptr_gst_buffer_append_region(@IncRef Buffer buf1, @IncRef Buffer buf2, NativeLong offset, NativeLong size);
+    void gst_buffer_resize(Buffer buffer, NativeLong offset, NativeLong size);
+
     /* memory blocks */
     NativeLong gst_buffer_get_size(Buffer buffer);
     boolean gst_buffer_map(Buffer buffer, MapInfoStruct info, int flags);
     void gst_buffer_unmap(Buffer buffer, MapInfoStruct info);
     int gst_buffer_n_memory(Buffer buffer);
+    void gst_buffer_insert_memory(Buffer buffer, int idx, @Invalidate MemoryBlock mem);
+    @CallerOwnsReturn MemoryBlock gst_buffer_get_memory(Buffer buffer, int idx);
     boolean gst_buffer_map_range(Buffer buffer, int idx, int length, MapInfoStruct info, int flags);
+    /* raw GstMapInfo variants, avoiding Structure marshalling */
+    boolean gst_buffer_map(Buffer buffer, Pointer info, int flags);
+    void gst_buffer_unmap(Buffer buffer, Pointer info);
+    boolean gst_buffer_map_range(Buffer buffer, int idx, int length, Pointer info, int flags);
+    /* copy data without mapping */
+    NativeLong gst_buffer_fill(Buffer buffer, NativeLong offset, ByteBuffer src, NativeLong size);
+    NativeLong gst_buffer_extract(Buffer buffer, NativeLong offset, ByteBuffer dest, NativeLong size);
+    int gst_buffer_memcmp(Buffer buffer, NativeLong offset, ByteBuffer mem, NativeLong size);
+    NativeLong gst_buffer_memset(Buffer buffer, NativeLong offset, byte val, NativeLong size);
     GstMetaPtr gst_buffer_get_meta(Buffer buffer, GType gType);
     int gst_buffer_get_n_meta(Buffer buffer,GType gType);
     GstMetaPtr gst_buffer_iterate_meta(Buffer buffer, PointerByReference state);
@@ -179,6 +212,11 @@ public interface GstBufferAPI extends com.sun.jna.Library {
             });
         }
         
+        @Override
+        public int fieldOffset(String name) {
+            return super.fieldOffset(name);
+        }
+
         @Override
         public String toString() {
         	return super.toString() + " " + pts + " " + dts + " " + duration;
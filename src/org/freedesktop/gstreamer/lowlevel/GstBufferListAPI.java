@@ -0,0 +1,47 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
+import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
+import org.freedesktop.gstreamer.lowlevel.annotations.Invalidate;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+
+/**
+ * GstBufferList methods
+ * @see https://gitlab.freedesktop.org/gstreamer/gstreamer/-/blob/main/subprojects/gstreamer/gst/gstbufferlist.h
+ */
+public interface GstBufferListAPI extends com.sun.jna.Library {
+
+    GstBufferListAPI GSTBUFFERLIST_API = GstNative.load(GstBufferListAPI.class);
+
+    GType gst_buffer_list_get_type();
+
+    /* allocation */
+    @CallerOwnsReturn Pointer ptr_gst_buffer_list_new();
+    @CallerOwnsReturn Pointer ptr_gst_buffer_list_new_sized(int size);
+
+    int gst_buffer_list_length(BufferList list);
+    Buffer gst_buffer_list_get(BufferList list, int idx);
+    void gst_buffer_list_insert(BufferList list, int idx, @Invalidate Buffer buffer);
+    void gst_buffer_list_remove(BufferList list, int idx, int length);
+    // since 1.14
+    NativeLong gst_buffer_list_calculate_size(BufferList list);
+
+}
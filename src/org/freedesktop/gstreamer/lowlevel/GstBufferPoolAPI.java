@@ -23,6 +23,10 @@ import org.freedesktop.gstreamer.Structure;
 import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
 
 import com.sun.jna.Pointer;
+import java.util.Arrays;
+import java.util.List;
+import org.freedesktop.gstreamer.FlowReturn;
+import org.freedesktop.gstreamer.lowlevel.annotations.Invalidate;
 
 /**
  * GstBufferPool methods and structures
@@ -31,6 +35,33 @@ import com.sun.jna.Pointer;
 public interface GstBufferPoolAPI extends com.sun.jna.Library {
     GstBufferPoolAPI GSTBUFFERPOOL_API = GstNative.load(GstBufferPoolAPI.class);
 
+    /* GstBufferPoolAcquireFlags */
+    public static final int GST_BUFFER_POOL_ACQUIRE_FLAG_NONE = 0;
+    public static final int GST_BUFFER_POOL_ACQUIRE_FLAG_KEY_UNIT = (1 << 0);
+    public static final int GST_BUFFER_POOL_ACQUIRE_FLAG_DONTWAIT = (1 << 1);
+    public static final int GST_BUFFER_POOL_ACQUIRE_FLAG_DISCONT = (1 << 2);
+
+    public static final class AcquireParamsStruct extends com.sun.jna.Structure {
+
+        public int format; // GstFormat
+        public long start;
+        public long stop;
+        public int flags; // GstBufferPoolAcquireFlags
+
+        /*< private >*/
+        public Pointer[] _gst_reserved = new Pointer[GstAPI.GST_PADDING];
+
+        public AcquireParamsStruct() {
+        }
+
+        @Override
+        protected List<String> getFieldOrder() {
+            return Arrays.asList(new String[]{
+                "format", "start", "stop", "flags", "_gst_reserved"
+            });
+        }
+    }
+
     GType gst_buffer_pool_get_type();
 
     /* allocation */
@@ -38,10 +69,24 @@ public interface GstBufferPoolAPI extends com.sun.jna.Library {
     Pointer ptr_gst_buffer_pool_new();
     
     /* state management */
-    Structure gst_buffer_pool_get_config(BufferPool pool);
-    
+    boolean gst_buffer_pool_set_active(BufferPool pool, boolean active);
+    boolean gst_buffer_pool_is_active(BufferPool pool);
+
+    boolean gst_buffer_pool_set_config(BufferPool pool, @Invalidate Structure config);
+    @CallerOwnsReturn Structure gst_buffer_pool_get_config(BufferPool pool);
+
     /* helpers for configuring the config structure */
     boolean gst_buffer_pool_config_get_params(Structure config, /* Caps ** */ Pointer[] caps, /* guint * */ int[] size, /* guint * */ int[] min_buffers, /* guint * */ int[] max_buffers);
     void gst_buffer_pool_config_set_params(Structure config, Caps caps, int size, int min_buffers, int max_buffers);
+
+    int gst_buffer_pool_config_n_options(Structure config);
+    void gst_buffer_pool_config_add_option(Structure config, String option);
+    String gst_buffer_pool_config_get_option(Structure config, int index);
+    boolean gst_buffer_pool_config_has_option(Structure config, String option);
+
+    boolean gst_buffer_pool_has_option(BufferPool pool, String option);
+
+    /* buffer management */
+    FlowReturn gst_buffer_pool_acquire_buffer(BufferPool pool, /* GstBuffer ** */ Pointer[] buffer, /* GstBufferPoolAcquireParams * */ Pointer params);
     
 }
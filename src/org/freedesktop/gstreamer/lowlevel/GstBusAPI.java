@@ -49,6 +49,7 @@ public interface GstBusAPI extends com.sun.jna.Library {
     @CallerOwnsReturn Message gst_bus_pop_filtered(Bus bus, MessageType types);
     @CallerOwnsReturn Message gst_bus_timed_pop(Bus bus, long timeout);
     @CallerOwnsReturn Message gst_bus_timed_pop_filtered(Bus bus, long timeout, MessageType types);
+    @CallerOwnsReturn Message gst_bus_timed_pop_filtered(Bus bus, long timeout, int types);
     /* polling the bus */
     @CallerOwnsReturn Message gst_bus_poll(Bus bus, MessageType events, /* GstlongDiff */ long timeout);
 //    @CallerOwnsReturn Message gst_bus_poll(Bus bus, MessageType events, long timeout);
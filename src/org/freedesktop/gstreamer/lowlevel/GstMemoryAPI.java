@@ -0,0 +1,85 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
+
+import com.sun.jna.NativeLong;
+import com.sun.jna.Pointer;
+import java.util.Arrays;
+import java.util.List;
+import org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.MiniObjectStruct;
+
+/**
+ * GstMemory methods and structures
+ * @see https://gitlab.freedesktop.org/gstreamer/gstreamer/-/blob/main/subprojects/gstreamer/gst/gstmemory.h
+ */
+public interface GstMemoryAPI extends com.sun.jna.Library {
+
+    GstMemoryAPI GSTMEMORY_API = GstNative.load(GstMemoryAPI.class);
+
+    GType gst_memory_get_type();
+
+    NativeLong gst_memory_get_sizes(MemoryBlock mem, /* gsize * */ NativeLong[] offset, /* gsize * */ NativeLong[] maxsize);
+    void gst_memory_resize(MemoryBlock mem, NativeLong offset, NativeLong size);
+    boolean gst_memory_is_type(MemoryBlock mem, String mem_type);
+
+    @CallerOwnsReturn Pointer ptr_gst_memory_copy(MemoryBlock mem, NativeLong offset, NativeLong size);
+    @CallerOwnsReturn Pointer ptr_gst_memory_share(MemoryBlock mem, NativeLong offset, NativeLong size);
+
+    /**
+     * GstMemory:
+     * @mini_object: parent structure
+     * @allocator: pointer to the #GstAllocator
+     * @parent: parent memory block
+     * @maxsize: the maximum size allocated
+     * @align: the alignment of the memory
+     * @offset: the offset where valid data starts
+     * @size: the size of valid data
+     */
+    public static final class MemoryStruct extends com.sun.jna.Structure {
+
+        public volatile MiniObjectStruct mini_object;
+        public volatile Pointer /* GstAllocator */ allocator;
+        public volatile Pointer /* GstMemory */ parent;
+        public volatile NativeLong maxsize;
+        public volatile NativeLong align;
+        public volatile NativeLong offset;
+        public volatile NativeLong size;
+
+        public MemoryStruct() {
+        }
+
+        public MemoryStruct(Pointer ptr) {
+            super(ptr);
+        }
+
+        @Override
+        protected List<String> getFieldOrder() {
+            return Arrays.asList(new String[]{
+                "mini_object", "allocator", "parent",
+                "maxsize", "align", "offset", "size"
+            });
+        }
+
+        @Override
+        public int fieldOffset(String name) {
+            return super.fieldOffset(name);
+        }
+    }
+
+}
@@ -135,6 +135,7 @@ public interface GstMessageAPI extends com.sun.jna.Library {
     Pointer ptr_gst_message_new_latency(GstObject source);
     @CallerOwnsReturn Message gst_message_new_custom(MessageType type, GstObject src, @Invalidate Structure structure);
     @ConstReturn Structure gst_message_get_structure(Message message);
+    Pointer ptr_gst_message_get_structure(GstMessagePtr message);
     Pointer ptr_gst_message_new_need_context(GstObject source, String context_type);
     @CallerOwnsReturn Message gst_message_new_need_context(GstObject source, String context_type);
 }
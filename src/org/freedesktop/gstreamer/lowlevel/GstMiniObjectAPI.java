@@ -85,5 +85,10 @@ public interface GstMiniObjectAPI extends com.sun.jna.Library {
                 "copyFn", "disposeFn", "freeFn", "n_qdata", "qdata"
             });
         }
+
+        @Override
+        public int fieldOffset(String name) {
+            return super.fieldOffset(name);
+        }
     }
 }
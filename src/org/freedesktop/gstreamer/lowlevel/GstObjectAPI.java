@@ -29,7 +29,6 @@ import com.sun.jna.NativeLong;
 import com.sun.jna.Pointer;
 import java.util.Arrays;
 import java.util.List;
-import org.freedesktop.gstreamer.lowlevel.GlibAPI.GList;
 
 /**
  * GstObject method and structures
@@ -88,7 +87,7 @@ public interface GstObjectAPI extends com.sun.jna.Library {
         public volatile int flags;
         
         /*< private >*/
-        public volatile GList control_bindings;
+        public volatile Pointer /* GList */ control_bindings;
         public volatile long control_rate;
         public volatile long last_sync;
         
@@ -23,6 +23,7 @@
 package org.freedesktop.gstreamer.lowlevel;
 
 import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
 import org.freedesktop.gstreamer.Caps;
 import org.freedesktop.gstreamer.Element;
 import org.freedesktop.gstreamer.event.Event;
@@ -163,6 +164,8 @@ public interface GstPadAPI extends com.sun.jna.Library {
     Event gst_pad_probe_info_get_event(GstPadProbeInfo probeInfo);
 
     Buffer gst_pad_probe_info_get_buffer(GstPadProbeInfo probeInfo);
+
+    BufferList gst_pad_probe_info_get_buffer_list(GstPadProbeInfo probeInfo);
     
     Query gst_pad_probe_info_get_query(GstPadProbeInfo probeInfo);
 
@@ -26,10 +26,12 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.BufferList;
 import org.freedesktop.gstreamer.Caps;
 import org.freedesktop.gstreamer.Sample;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GstSegmentStruct;
 import org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.MiniObjectStruct;
+import org.freedesktop.gstreamer.lowlevel.annotations.CallerOwnsReturn;
 
 import com.sun.jna.Pointer;
 
@@ -66,8 +68,12 @@ public interface GstSampleAPI extends com.sun.jna.Library {
         }
     }
     
+    @CallerOwnsReturn Pointer ptr_gst_sample_new(Buffer buffer, Caps caps,
+            GstSegmentStruct segment, Pointer info);
     /*@CallerOwnsReturn*/ Caps gst_sample_get_caps(Sample sample);
     /*@CallerOwnsReturn*/ Buffer gst_sample_get_buffer(Sample sample);
+    /*@CallerOwnsReturn*/ BufferList gst_sample_get_buffer_list(Sample sample);
+    /*@CallerOwnsReturn*/ GstSegmentStruct gst_sample_get_segment(Sample sample);
     
     void gst_sample_set_buffer(Sample sample, Buffer buffer);
     void gst_sample_set_caps(Sample sample, Caps caps);
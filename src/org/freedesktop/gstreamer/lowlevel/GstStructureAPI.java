@@ -51,6 +51,7 @@ public interface GstStructureAPI extends com.sun.jna.Library {
     void gst_structure_remove_all_fields(Structure structure);
     
     String gst_structure_get_name(Structure structure);
+    int gst_structure_get_name_id(Pointer structure);
     void gst_structure_set_name(Structure structure, String name);
     boolean gst_structure_has_name(Structure structure, String name); 
     int gst_structure_n_fields(Structure structure);
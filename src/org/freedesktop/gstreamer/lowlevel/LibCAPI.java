@@ -0,0 +1,41 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Library;
+import com.sun.jna.Native;
+import com.sun.jna.NativeLong;
+
+/**
+ * Minimal bindings to the C library, for functionality that is not provided
+ * by GLib or GStreamer.
+ */
+public interface LibCAPI extends Library {
+
+    LibCAPI LIBC_API = Native.load("c", LibCAPI.class);
+
+    /* memfd_create flags */
+    public static final int MFD_CLOEXEC = 0x0001;
+    public static final int MFD_ALLOW_SEALING = 0x0002;
+
+    // Linux only, glibc 2.27+
+    int memfd_create(String name, int flags) throws LastErrorException;
+    // off_t is long, unless large file support is enabled on 32-bit
+    int ftruncate(int fd, NativeLong length) throws LastErrorException;
+    int close(int fd) throws LastErrorException;
+
+}
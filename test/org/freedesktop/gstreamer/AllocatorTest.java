@@ -0,0 +1,74 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AllocatorTest {
+
+    public AllocatorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AllocatorTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testDefaultAllocator() {
+        Allocator allocator = Allocator.getDefault();
+        assertNotNull(allocator);
+        assertEquals("SystemMemory", allocator.getMemoryType());
+        assertNull(Allocator.find("NoSuchAllocator"));
+    }
+
+    @Test
+    public void testAllocate() {
+        Allocator allocator = Allocator.getDefault();
+        MemoryBlock memory = allocator.allocate(64);
+        assertEquals(64, memory.getSize());
+        assertEquals(0, memory.getOffset());
+        assertTrue(memory.getMaxSize() >= 64);
+        assertTrue(memory.isType("SystemMemory"));
+        assertEquals(allocator, memory.getAllocator());
+        MemoryBlock shared = memory.share(16, 32);
+        assertEquals(32, shared.getSize());
+        assertEquals(16, shared.getOffset());
+    }
+
+    @Test
+    public void testBufferMemory() {
+        Buffer buffer = new Buffer();
+        assertEquals(0, buffer.getMemoryCount());
+        buffer.appendMemory(Allocator.getDefault().allocate(16));
+        buffer.appendMemory(Allocator.getDefault().allocate(32));
+        assertEquals(2, buffer.getMemoryCount());
+        assertEquals(48, buffer.getSize());
+        MemoryBlock memory = buffer.getMemory(1);
+        assertEquals(32, memory.getSize());
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import org.freedesktop.gstreamer.glib.Natives;
+import org.freedesktop.gstreamer.lowlevel.GstMiniObjectPtr;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.freedesktop.gstreamer.lowlevel.GstMiniObjectAPI.GSTMINIOBJECT_API;
+import static org.junit.Assert.*;
+
+public class BufferListTest {
+
+    public BufferListTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "BufferListTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testAddAndGet() {
+        BufferList list = new BufferList(4);
+        assertEquals(0, list.size());
+        list.add(new Buffer(8));
+        list.add(new Buffer(16));
+        list.insert(0, new Buffer(4));
+        assertEquals(3, list.size());
+        assertEquals(4, sizeOf(list.get(0)));
+        assertEquals(8, sizeOf(list.get(1)));
+        assertEquals(16, sizeOf(list.get(2)));
+        list.dispose();
+    }
+
+    @Test
+    public void testRemove() {
+        BufferList list = new BufferList();
+        list.add(new Buffer(8));
+        list.add(new Buffer(16));
+        list.add(new Buffer(32));
+        list.remove(0, 2);
+        assertEquals(1, list.size());
+        assertEquals(32, sizeOf(list.get(0)));
+        list.dispose();
+    }
+
+    @Test
+    public void testCalculateSize() {
+        if (!Gst.testVersion(1, 14)) {
+            return;
+        }
+        BufferList list = new BufferList();
+        list.add(new Buffer(8));
+        list.add(new Buffer(16));
+        assertEquals(24, list.calculateSize());
+        list.dispose();
+    }
+
+    @Test
+    public void testNotWritable() {
+        BufferList list = new BufferList();
+        list.add(new Buffer(8));
+        GstMiniObjectPtr ptr = new GstMiniObjectPtr(Natives.getRawPointer(list));
+        GSTMINIOBJECT_API.gst_mini_object_ref(ptr);
+        try {
+            assertFalse(list.isWritable());
+            try {
+                list.add(new Buffer(8));
+                fail("add() on a shared list should fail");
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                list.insert(0, new Buffer(8));
+                fail("insert() on a shared list should fail");
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                list.remove(0, 1);
+                fail("remove() on a shared list should fail");
+            } catch (IllegalStateException expected) {
+            }
+            assertEquals(1, list.size());
+        } finally {
+            GSTMINIOBJECT_API.gst_mini_object_unref(ptr);
+        }
+        list.dispose();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        BufferList list = new BufferList();
+        list.get(0);
+    }
+
+    private static int sizeOf(Buffer buffer) {
+        try (MappedBuffer mapped = buffer.mapped(false)) {
+            return mapped.getSize();
+        }
+    }
+
+}
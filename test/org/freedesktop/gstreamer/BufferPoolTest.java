@@ -0,0 +1,107 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    public BufferPoolTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "BufferPoolTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testParams() {
+        BufferPool pool = new BufferPool();
+        Caps caps = Caps.fromString("video/x-raw,format=RGB,width=8,height=8");
+        pool.setParams(caps, 192, 1, 3);
+        assertEquals(192, pool.getSize());
+        assertEquals(1, pool.getMinBuffers());
+        assertEquals(3, pool.getMaxBuffers());
+        assertTrue(pool.getCaps().isEqual(caps));
+    }
+
+    @Test
+    public void testOptions() {
+        BufferPool pool = new BufferPool();
+        pool.setParams(null, 64, 0, 0);
+        assertTrue(pool.getOptions().isEmpty());
+        pool.addOption("TestOption");
+        assertEquals(1, pool.getOptions().size());
+        assertEquals("TestOption", pool.getOptions().get(0));
+    }
+
+    @Test
+    public void testAcquireRelease() {
+        BufferPool pool = new BufferPool();
+        pool.setParams(null, 64, 2, 2);
+        assertTrue(pool.setActive(true));
+        assertTrue(pool.isActive());
+        Buffer first = pool.acquireBuffer();
+        Buffer second = pool.tryAcquireBuffer();
+        assertNotNull(first);
+        assertNotNull(second);
+        try (MappedBuffer mapped = first.mapped(false)) {
+            assertEquals(64, mapped.getSize());
+        }
+        assertNull(pool.tryAcquireBuffer());
+        pool.disposeBuffer(first);
+        Buffer third = pool.tryAcquireBuffer();
+        assertNotNull(third);
+        pool.disposeBuffer(second);
+        pool.disposeBuffer(third);
+        BufferPool.Stats stats = pool.getStats();
+        assertEquals(3, stats.getAcquired());
+        assertEquals(3, stats.getDisposed());
+        assertEquals(0, stats.getOutstanding());
+        assertEquals(1, stats.getWouldBlock());
+        assertTrue(pool.setActive(false));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSetParamsWhenActive() {
+        BufferPool pool = new BufferPool();
+        pool.setParams(null, 64, 0, 1);
+        pool.setActive(true);
+        try {
+            pool.setParams(null, 128, 0, 1);
+        } finally {
+            pool.setActive(false);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAcquireWhenInactive() {
+        BufferPool pool = new BufferPool();
+        pool.setParams(null, 64, 0, 1);
+        pool.acquireBuffer();
+    }
+
+}
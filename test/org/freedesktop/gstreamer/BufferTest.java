@@ -0,0 +1,243 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BufferTest {
+
+    public BufferTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "BufferTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testWrapSharesMemory() {
+        ByteBuffer data = ByteBuffer.allocateDirect(16);
+        for (int i = 0; i < 16; i++) {
+            data.put(i, (byte) i);
+        }
+        data.position(4).limit(12);
+        Buffer buffer = Buffer.wrap(data);
+        ByteBuffer mapped = buffer.map(true);
+        assertEquals(8, mapped.remaining());
+        assertEquals(4, mapped.get(0));
+        mapped.put(0, (byte) 42);
+        buffer.unmap();
+        assertEquals(42, data.get(4));
+        assertEquals(4, data.position());
+        assertEquals(12, data.limit());
+        buffer.dispose();
+    }
+
+    @Test
+    public void testWrapRelease() {
+        ByteBuffer data = ByteBuffer.allocateDirect(64);
+        AtomicReference<ByteBuffer> released = new AtomicReference<>();
+        Buffer buffer = Buffer.wrap(data, released::set);
+        assertNull(released.get());
+        buffer.dispose();
+        assertSame(data, released.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapHeapBuffer() {
+        Buffer.wrap(ByteBuffer.allocate(16));
+    }
+
+    @Test
+    public void testMapRange() {
+        Buffer buffer = new Buffer(16);
+        ByteBuffer mapped = buffer.map(0, -1, true);
+        assertEquals(16, mapped.remaining());
+        mapped.put(3, (byte) 7);
+        buffer.unmap();
+        mapped = buffer.map(0, 1, false);
+        assertEquals(7, mapped.get(3));
+        buffer.unmap();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMapRangeOutOfBounds() {
+        Buffer buffer = new Buffer(16);
+        buffer.map(1, 1, false);
+    }
+
+    @Test
+    public void testMapMemories() {
+        Buffer buffer = new Buffer(16);
+        ByteBuffer[] mapped = buffer.mapMemories(false);
+        assertEquals(buffer.getMemoryCount(), mapped.length);
+        assertEquals(16, mapped[0].remaining());
+        buffer.unmap();
+    }
+
+    @Test
+    public void testNestedMappings() {
+        Buffer buffer = new Buffer(16);
+        try (MappedBuffer write = buffer.mapped(true)) {
+            write.getByteBuffer().put(0, (byte) 5);
+            try (MappedBuffer read = buffer.mapped(false)) {
+                assertEquals(5, read.getByteBuffer().get(0));
+                assertEquals(16, read.getSize());
+            }
+            assertEquals(5, write.getByteBuffer().get(0));
+        }
+    }
+
+    @Test
+    public void testMappedMemories() {
+        Buffer buffer = new Buffer(16);
+        try (MappedBuffer mapped = buffer.mappedMemories(false)) {
+            assertEquals(buffer.getMemoryCount(), mapped.getByteBufferCount());
+            assertEquals(16, mapped.getSize());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMappedClosed() {
+        Buffer buffer = new Buffer(16);
+        MappedBuffer mapped = buffer.mapped(false);
+        mapped.close();
+        mapped.close();
+        mapped.getByteBuffer();
+    }
+
+    @Test
+    public void testMapWithoutData() {
+        Buffer buffer = new Buffer();
+        assertNull(buffer.map(false));
+        buffer.unmap();
+        try (MappedBuffer mapped = buffer.mapped(false)) {
+            assertEquals(0, mapped.getByteBuffer().capacity());
+        }
+    }
+
+    @Test
+    public void testFlagsValue() {
+        Buffer buffer = new Buffer(16);
+        assertFalse(buffer.hasFlag(BufferFlags.DISCONT));
+        buffer.setFlags(EnumSet.of(BufferFlags.DISCONT, BufferFlags.HEADER));
+        assertTrue(buffer.hasFlag(BufferFlags.DISCONT));
+        assertTrue(buffer.hasFlag(BufferFlags.HEADER));
+        assertFalse(buffer.hasFlag(BufferFlags.GAP));
+        assertEquals(BufferFlags.DISCONT.intValue() | BufferFlags.HEADER.intValue(),
+                buffer.getFlagsValue());
+    }
+
+    @Test
+    public void testFillExtract() {
+        Buffer buffer = new Buffer(16);
+        assertEquals(16, buffer.getSize());
+        buffer.fill(0, (byte) 0, 16);
+        assertEquals(4, buffer.fill(2, new byte[]{1, 2, 3, 4}));
+        byte[] dest = new byte[6];
+        assertEquals(6, buffer.extract(1, dest));
+        assertArrayEquals(new byte[]{0, 1, 2, 3, 4, 0}, dest);
+        assertEquals(2, buffer.fill(14, new byte[]{5, 6, 7}));
+        ByteBuffer direct = ByteBuffer.allocateDirect(8);
+        direct.position(4);
+        assertEquals(2, buffer.extract(14, direct));
+        assertEquals(6, direct.position());
+        assertEquals(5, direct.get(4));
+        assertEquals(6, direct.get(5));
+    }
+
+    @Test
+    public void testCompare() {
+        Buffer buffer = new Buffer(16);
+        buffer.fill(0, new byte[]{1, 2, 3, 4});
+        assertEquals(0, buffer.compare(0, new byte[]{1, 2, 3, 4}));
+        assertEquals(0, buffer.compare(1, new byte[]{9, 2, 3}, 1, 2));
+        assertNotEquals(0, buffer.compare(0, new byte[]{1, 2, 3, 5}));
+        assertNotEquals(0, buffer.compare(14, new byte[4]));
+    }
+
+    @Test
+    public void testFillValue() {
+        Buffer buffer = new Buffer(16);
+        assertEquals(16, buffer.fill(0, (byte) 0, 32));
+        assertEquals(12, buffer.fill(0, (byte) 0x7f, 12));
+        byte[] dest = new byte[16];
+        buffer.extract(0, dest);
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i < 12 ? 0x7f : 0, dest[i]);
+        }
+    }
+
+    @Test
+    public void testCopyRegion() {
+        Buffer buffer = new Buffer(8);
+        buffer.fill(0, new byte[]{0, 1, 2, 3, 4, 5, 6, 7});
+        buffer.setPresentationTimestamp(1000);
+        Buffer region = buffer.region(2, 4);
+        assertEquals(4, region.getSize());
+        assertEquals(0, region.compare(0, new byte[]{2, 3, 4, 5}));
+        assertEquals(1000, buffer.region(0, 4).getPresentationTimestamp());
+        Buffer tail = buffer.copyRegion(EnumSet.of(BufferCopyFlags.MEMORY), 6, -1);
+        assertEquals(2, tail.getSize());
+        assertEquals(ClockTime.NONE, tail.getPresentationTimestamp());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCopyRegionOutOfBounds() {
+        Buffer buffer = new Buffer(8);
+        buffer.region(4, 8);
+    }
+
+    @Test
+    public void testAppend() {
+        Buffer first = new Buffer(4);
+        first.fill(0, new byte[]{1, 2, 3, 4});
+        Buffer second = new Buffer(4);
+        second.fill(0, new byte[]{5, 6, 7, 8});
+        Buffer joined = first.append(second);
+        assertEquals(8, joined.getSize());
+        assertEquals(2, joined.getMemoryCount());
+        assertEquals(0, joined.compare(0, new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+        assertEquals(4, first.getSize());
+        assertEquals(4, second.getSize());
+        Buffer partial = first.appendRegion(second, 1, 2);
+        assertEquals(6, partial.getSize());
+        assertEquals(0, partial.compare(0, new byte[]{1, 2, 3, 4, 6, 7}));
+    }
+
+    @Test
+    public void testResize() {
+        Buffer buffer = new Buffer(8);
+        buffer.fill(0, new byte[]{0, 1, 2, 3, 4, 5, 6, 7});
+        buffer.resize(2, 3);
+        assertEquals(3, buffer.getSize());
+        assertEquals(0, buffer.compare(0, new byte[]{2, 3, 4}));
+    }
+
+}
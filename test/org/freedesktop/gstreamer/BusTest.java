@@ -19,11 +19,23 @@
  */
 package org.freedesktop.gstreamer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import org.freedesktop.gstreamer.glib.GMainContext;
+import org.freedesktop.gstreamer.glib.MainContextExecutorService;
 import org.freedesktop.gstreamer.lowlevel.GlibAPI;
+import org.freedesktop.gstreamer.lowlevel.MainLoop;
 import org.freedesktop.gstreamer.lowlevel.GstAPI.GErrorStruct;
 import org.freedesktop.gstreamer.message.EOSMessage;
 import org.freedesktop.gstreamer.message.Message;
@@ -346,6 +358,261 @@ public class BusTest {
         assertTrue("Message not destroyed", gc.waitDestroyed());
     }
 
+    private static Message applicationMessage(GstObject src, int seq) {
+        Structure structure = new Structure("test");
+        structure.setInteger("seq", seq);
+        return GSTMESSAGE_API.gst_message_new_custom(MessageType.APPLICATION, src, structure);
+    }
+
+    @Test
+    public void customExecutorPreservesOrder() throws Exception {
+        final TestPipe pipe = new TestPipe("customExecutor");
+        final int count = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final AtomicInteger executed = new AtomicInteger();
+            final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch latch = new CountDownLatch(count);
+            Bus bus = pipe.getBus();
+            bus.setExecutor(task -> {
+                executed.incrementAndGet();
+                pool.execute(task);
+            });
+            Bus.MESSAGE listener = (Bus b, Message msg) -> {
+                if (msg.getType() == MessageType.APPLICATION) {
+                    received.add(msg.getStructure().getInteger("seq"));
+                    latch.countDown();
+                }
+            };
+            bus.connect(listener);
+            for (int i = 0; i < count; i++) {
+                bus.post(applicationMessage(pipe.src, i));
+            }
+            assertTrue("Messages not dispatched", latch.await(5, TimeUnit.SECONDS));
+            bus.disconnect(listener);
+            assertTrue("Custom executor not used", executed.get() > 0);
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, (int) received.get(i));
+            }
+            bus.setExecutor(null);
+        } finally {
+            pool.shutdown();
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void changingExecutorPreservesOrder() throws Exception {
+        final TestPipe pipe = new TestPipe("changeExecutor");
+        final int count = 500;
+        ExecutorService first = Executors.newFixedThreadPool(4);
+        ExecutorService second = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch latch = new CountDownLatch(count);
+            Bus bus = pipe.getBus();
+            bus.setExecutor(first);
+            Bus.MESSAGE listener = (Bus b, Message msg) -> {
+                if (msg.getType() == MessageType.APPLICATION) {
+                    received.add(msg.getStructure().getInteger("seq"));
+                    latch.countDown();
+                }
+            };
+            bus.connect(listener);
+            for (int i = 0; i < count; i++) {
+                if (i == count / 2) {
+                    bus.setExecutor(second);
+                }
+                bus.post(applicationMessage(pipe.src, i));
+            }
+            assertTrue("Messages not dispatched", latch.await(5, TimeUnit.SECONDS));
+            bus.disconnect(listener);
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, (int) received.get(i));
+            }
+            bus.setExecutor(null);
+        } finally {
+            first.shutdown();
+            second.shutdown();
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void uninterestingMessagesNotDispatched() throws Exception {
+        final TestPipe pipe = new TestPipe("uninteresting");
+        try {
+            final AtomicInteger executed = new AtomicInteger();
+            final CountDownLatch latch = new CountDownLatch(1);
+            Bus bus = pipe.getBus();
+            bus.setExecutor(task -> {
+                executed.incrementAndGet();
+                task.run();
+            });
+            Bus.EOS listener = source -> latch.countDown();
+            bus.connect(listener);
+            for (int i = 0; i < 10; i++) {
+                bus.post(applicationMessage(pipe.src, i));
+            }
+            assertEquals(0, executed.get());
+            bus.post(new EOSMessage(pipe.src));
+            assertTrue("EOS not dispatched", latch.await(5, TimeUnit.SECONDS));
+            assertEquals(1, executed.get());
+            bus.disconnect(listener);
+            bus.setExecutor(null);
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void syncHandlerMessageTypes() {
+        final TestPipe pipe = new TestPipe("syncHandlerTypes");
+        try {
+            final List<MessageType> types = Collections.synchronizedList(new ArrayList<>());
+            Bus bus = pipe.getBus();
+            bus.setSyncHandler(message -> {
+                types.add(message.getType());
+                return BusSyncReply.DROP;
+            }, EnumSet.of(MessageType.APPLICATION));
+            bus.post(new EOSMessage(pipe.src));
+            bus.post(applicationMessage(pipe.src, 0));
+            bus.post(new EOSMessage(pipe.src));
+            bus.clearSyncHandler();
+            assertEquals(Collections.singletonList(MessageType.APPLICATION), types);
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void listenersCalledInRegistrationOrder() {
+        final TestPipe pipe = new TestPipe("registrationOrder");
+        try {
+            final List<String> calls = new ArrayList<>();
+            Bus bus = pipe.getBus();
+            bus.setExecutor(Runnable::run);
+            Bus.MESSAGE first = (b, message) -> calls.add("first");
+            Bus.EOS eos = source -> calls.add("eos");
+            Bus.MESSAGE last = (b, message) -> calls.add("last");
+            bus.connect(first);
+            bus.connect(eos);
+            bus.connect(last);
+            bus.post(new EOSMessage(pipe.src));
+            assertEquals(Arrays.asList("first", "eos", "last"), calls);
+            calls.clear();
+            bus.post(applicationMessage(pipe.src, 0));
+            assertEquals(Arrays.asList("first", "last"), calls);
+            calls.clear();
+            bus.disconnect(eos);
+            bus.post(new EOSMessage(pipe.src));
+            assertEquals(Arrays.asList("first", "last"), calls);
+            bus.disconnect(first);
+            bus.disconnect(last);
+            bus.setExecutor(null);
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void coalescedMessages() {
+        final TestPipe pipe = new TestPipe("coalesced");
+        try {
+            final List<Runnable> tasks = new ArrayList<>();
+            final List<Integer> received = new ArrayList<>();
+            Bus bus = pipe.getBus();
+            bus.setExecutor(tasks::add);
+            bus.setCoalescedMessageTypes(EnumSet.of(MessageType.APPLICATION));
+            Bus.MESSAGE listener = (b, message) -> {
+                if (message.getType() == MessageType.APPLICATION) {
+                    received.add(message.getStructure().getInteger("seq"));
+                }
+            };
+            bus.connect(listener);
+            for (int i = 0; i < 10; i++) {
+                bus.post(applicationMessage(pipe.src, i));
+            }
+            bus.post(applicationMessage(pipe.sink, 10));
+            assertEquals(1, tasks.size());
+            tasks.remove(0).run();
+            assertEquals(Arrays.asList(9, 10), received);
+            bus.disconnect(listener);
+            bus.setCoalescedMessageTypes(EnumSet.noneOf(MessageType.class));
+            bus.setExecutor(null);
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void timedPop() {
+        final TestPipe pipe = new TestPipe("timedPop");
+        try {
+            Bus bus = pipe.getBus();
+            assertNull(bus.timedPop(10, TimeUnit.MILLISECONDS));
+            bus.setPullMessageTypes(EnumSet.of(MessageType.EOS));
+            bus.post(new EOSMessage(pipe.src));
+            assertEquals(MessageType.EOS, bus.peek().getType());
+            Message msg = bus.timedPop(5, TimeUnit.SECONDS);
+            assertNotNull(msg);
+            assertEquals(MessageType.EOS, msg.getType());
+            assertNull(bus.pop());
+            bus.setPullMessageTypes(EnumSet.noneOf(MessageType.class));
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void pullMessagesNotConsumedBySignalWatch() throws Exception {
+        final TestPipe pipe = new TestPipe("pullWatch");
+        try {
+            Bus bus = pipe.getBus();
+            Bus.EOS listener = source -> {
+            };
+            bus.connect(listener);
+            bus.setPullMessageTypes(EnumSet.of(MessageType.APPLICATION));
+            bus.post(applicationMessage(pipe.src, 0));
+            // the signal watch is a default priority source on the default
+            // context, so it is dispatched before an idle task completes
+            MainLoop loop = new MainLoop(GMainContext.getDefaultContext());
+            loop.startInBackground();
+            try {
+                new MainContextExecutorService(GMainContext.getDefaultContext())
+                        .submit(() -> {
+                        }).get(5, TimeUnit.SECONDS);
+            } finally {
+                loop.quit();
+            }
+            Message msg = bus.pop();
+            assertNotNull(msg);
+            assertEquals(MessageType.APPLICATION, msg.getType());
+            bus.setPullMessageTypes(EnumSet.noneOf(MessageType.class));
+            bus.disconnect(listener);
+        } finally {
+            pipe.dispose();
+        }
+    }
+
+    @Test
+    public void timedPopFiltered() {
+        final TestPipe pipe = new TestPipe("timedPopFiltered");
+        try {
+            Bus bus = pipe.getBus();
+            bus.setPullMessageTypes(EnumSet.of(MessageType.APPLICATION, MessageType.EOS));
+            bus.post(applicationMessage(pipe.src, 0));
+            bus.post(new EOSMessage(pipe.src));
+            Message msg = bus.timedPopFiltered(5, TimeUnit.SECONDS, EnumSet.of(MessageType.EOS));
+            assertNotNull(msg);
+            assertEquals(MessageType.EOS, msg.getType());
+            assertNull(bus.pop());
+            bus.setPullMessageTypes(EnumSet.noneOf(MessageType.class));
+        } finally {
+            pipe.dispose();
+        }
+    }
+
     @Test
     public void syncHandler() {
         final TestPipe pipe = new TestPipe("syncHandler");
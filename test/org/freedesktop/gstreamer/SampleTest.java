@@ -87,6 +87,33 @@ public class SampleTest {
         });
     }
 
+    @Test
+    public void testConstructor() {
+        Buffer buffer = new Buffer(16);
+        Caps caps = Caps.fromString("audio/x-raw");
+        Sample sample = new Sample(buffer, caps);
+        assertEquals(buffer, sample.getBuffer());
+        assertEquals(caps, sample.getCaps());
+        sample.dispose();
+        Sample empty = new Sample(null, null);
+        assertNull(empty.getBuffer());
+        assertNull(empty.getCaps());
+    }
+
+    @Test
+    public void testSegment() {
+        Sample sample = new Sample(new Buffer(16), null,
+                new Segment(2.0, Format.TIME, 1000, 5000));
+        Segment segment = sample.getSegment();
+        assertEquals(2.0, segment.getRate(), 0);
+        assertEquals(Format.TIME, segment.getFormat());
+        assertEquals(1000, segment.getStartValue());
+        assertEquals(5000, segment.getStopValue());
+        sample.dispose();
+        Sample noSegment = new Sample(null, null);
+        assertEquals(Format.TIME, noSegment.getSegment().getFormat());
+    }
+
     @Test
     public void testSampleTester() {
         try {
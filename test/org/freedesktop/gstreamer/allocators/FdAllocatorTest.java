@@ -0,0 +1,81 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.allocators;
+
+import java.nio.ByteBuffer;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.MemoryBlock;
+import org.freedesktop.gstreamer.MappedBuffer;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FdAllocatorTest {
+
+    public FdAllocatorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "FdAllocatorTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testMemfd() {
+        FdAllocator allocator = createAllocator();
+        assertEquals("fd", allocator.getMemoryType());
+        MemoryBlock memory = allocator.allocateMemfd("test", 4096);
+        assertTrue(Allocators.isFdMemory(memory));
+        int fd = Allocators.getFd(memory);
+        assertTrue(fd >= 0);
+        Buffer buffer = new Buffer();
+        buffer.appendMemory(memory);
+        assertEquals(fd, Allocators.getFd(buffer));
+        try (MappedBuffer mapped = buffer.mapped(true)) {
+            ByteBuffer data = mapped.getByteBuffer();
+            assertEquals(4096, data.capacity());
+            data.put(0, (byte) 42);
+        }
+        assertEquals(0, buffer.compare(0, new byte[]{42}));
+    }
+
+    @Test
+    public void testNotFdMemory() {
+        createAllocator();
+        Buffer buffer = new Buffer(16);
+        assertEquals(-1, Allocators.getFd(buffer));
+    }
+
+    private static FdAllocator createAllocator() {
+        try {
+            return new FdAllocator();
+        } catch (UnsatisfiedLinkError | NoClassDefFoundError | ExceptionInInitializerError ex) {
+            Assume.assumeNoException(ex);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import org.freedesktop.gstreamer.Caps;
+import org.freedesktop.gstreamer.Gst;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AudioInfoTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AudioInfoTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testFromCaps() {
+        Caps caps = Caps.fromString("audio/x-raw,format=S16BE,rate=44100,channels=2,layout=interleaved");
+        AudioInfo info = AudioInfo.fromCaps(caps);
+        assertEquals(AudioFormat.S16BE, info.getFormat());
+        assertEquals(AudioLayout.INTERLEAVED, info.getLayout());
+        assertEquals(44100, info.getRate());
+        assertEquals(2, info.getChannels());
+        assertEquals(4, info.getBytesPerFrame());
+        assertEquals(10, info.getFrames(40));
+        assertSame(info, AudioInfo.fromCaps(caps));
+    }
+
+    @Test
+    public void testFromDisposedCapsInstance() {
+        String desc = "audio/x-raw,format=F32LE,rate=48000,channels=1,layout=interleaved";
+        Caps first = Caps.fromString(desc);
+        AudioInfo info = AudioInfo.fromCaps(first);
+        first.dispose();
+        Caps second = Caps.fromString(desc);
+        AudioInfo secondInfo = AudioInfo.fromCaps(second);
+        assertEquals(info.getFormat(), secondInfo.getFormat());
+        assertEquals(info.getRate(), secondInfo.getRate());
+        assertSame(secondInfo, AudioInfo.fromCaps(second));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullFormat() {
+        new AudioInfo(null, AudioLayout.INTERLEAVED, 48000, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullLayout() {
+        new AudioInfo(AudioFormat.S16LE, null, 48000, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnfixedCaps() {
+        AudioInfo.fromCaps(Caps.fromString("audio/x-raw,format=S16LE,rate=[1,48000],channels=2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromVideoCaps() {
+        AudioInfo.fromCaps(Caps.fromString("video/x-raw,format=RGB,width=2,height=2"));
+    }
+
+    @Test
+    public void testShortBufferOrder() {
+        AudioInfo info = new AudioInfo(AudioFormat.S16BE, AudioLayout.INTERLEAVED, 48000, 1);
+        ByteBuffer data = ByteBuffer.allocateDirect(4).order(ByteOrder.LITTLE_ENDIAN);
+        data.put(new byte[]{0x01, 0x02, 0x03, 0x04}).flip();
+        ShortBuffer samples = info.asShortBuffer(data);
+        assertEquals(2, samples.remaining());
+        assertEquals(0x0102, samples.get(0));
+        assertEquals(0x0304, samples.get(1));
+    }
+
+    @Test
+    public void testFloatPlanes() {
+        AudioInfo info = new AudioInfo(AudioFormat.F32LE, AudioLayout.NON_INTERLEAVED, 48000, 2);
+        assertFalse(info.isInterleaved());
+        ByteBuffer data = ByteBuffer.allocate(24).order(ByteOrder.LITTLE_ENDIAN);
+        data.asFloatBuffer().put(new float[]{1, 2, 3, -1, -2, -3});
+        FloatBuffer[] planes = info.asFloatBuffers(data);
+        assertEquals(2, planes.length);
+        assertEquals(3, planes[0].remaining());
+        assertEquals(3, planes[0].get(2), 0);
+        assertEquals(-1, planes[1].get(0), 0);
+        assertEquals(0, data.position());
+    }
+
+    @Test
+    public void testInterleavedPlanes() {
+        AudioInfo info = new AudioInfo(AudioFormat.F32LE, AudioLayout.INTERLEAVED, 48000, 2);
+        assertTrue(info.isInterleaved());
+        FloatBuffer[] planes = info.asFloatBuffers(ByteBuffer.allocate(16));
+        assertEquals(1, planes.length);
+        assertEquals(4, planes[0].remaining());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWrongView() {
+        AudioInfo info = new AudioInfo(AudioFormat.S16LE, AudioLayout.INTERLEAVED, 48000, 2);
+        info.asFloatBuffer(ByteBuffer.allocate(16));
+    }
+
+}
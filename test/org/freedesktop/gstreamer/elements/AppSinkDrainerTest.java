@@ -0,0 +1,81 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Gst;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for AppSinkDrainer.
+ */
+public class AppSinkDrainerTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AppSinkDrainerTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    private static Buffer twoMemoryBuffer() {
+        Buffer first = new Buffer(4);
+        first.fill(0, new byte[]{1, 2, 3, 4});
+        Buffer second = new Buffer(3);
+        second.fill(0, new byte[]{5, 6, 7});
+        Buffer buffer = first.append(second);
+        assertEquals(2, buffer.getMemoryCount());
+        return buffer;
+    }
+
+    @Test
+    public void testWriteToStreamChannel() throws Exception {
+        Buffer buffer = twoMemoryBuffer();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(7, AppSinkDrainer.write(buffer, Channels.newChannel(out)));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7}, out.toByteArray());
+    }
+
+    @Test
+    public void testGatheringWriteToFile() throws Exception {
+        Buffer buffer = twoMemoryBuffer();
+        Path file = Files.createTempFile("gst-drainer", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                assertEquals(7, AppSinkDrainer.write(buffer, channel));
+                assertEquals(7, AppSinkDrainer.write(buffer, channel));
+            }
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6, 7, 1, 2, 3, 4, 5, 6, 7},
+                    Files.readAllBytes(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Element;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.GstException;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.lowlevel.GstAPI;
+import org.freedesktop.gstreamer.lowlevel.GstAPI.GErrorStruct;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.freedesktop.gstreamer.lowlevel.GlibAPI.GLIB_API;
+import static org.freedesktop.gstreamer.lowlevel.GstAPI.GST_API;
+import static org.freedesktop.gstreamer.lowlevel.GstMessageAPI.GSTMESSAGE_API;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for AppSinkPublisher.
+ */
+public class AppSinkPublisherTest {
+
+    private Pipeline pipeline;
+    private AppSrc src;
+    private AppSink sink;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AppSinkPublisherTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Before
+    public void setUp() {
+        TestAssumptions.requireGstVersion(1, 10);
+        AppTestPipe app = new AppTestPipe();
+        pipeline = app.pipe;
+        src = app.src;
+        sink = app.sink;
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    private void pushBuffers(int count) {
+        for (int i = 0; i < count; i++) {
+            Buffer buffer = new Buffer(4);
+            buffer.setOffset(i);
+            src.pushBuffer(buffer);
+        }
+    }
+
+    private static void postError(Element element) {
+        GErrorStruct error = GLIB_API.g_error_new_literal(GST_API.gst_stream_error_quark(),
+                GstAPI.GST_STREAM_ERROR_FAILED, "test error");
+        element.postMessage(GSTMESSAGE_API.gst_message_new_error(element, error, "test"));
+        GLIB_API.g_error_free(error);
+    }
+
+    @Test
+    public void testDemand() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(2);
+        new AppSinkPublisher(sink, executor).subscribe(subscriber);
+        pipeline.play();
+        pushBuffers(5);
+        src.endOfStream();
+        assertTrue(subscriber.items.await(10, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(2, subscriber.offsets.size());
+        assertEquals(1, subscriber.complete.getCount());
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertTrue("Not completed", subscriber.complete.await(10, TimeUnit.SECONDS));
+        assertEquals(5, subscriber.offsets.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Long.valueOf(i), subscriber.offsets.get(i));
+        }
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AppSinkPublisher publisher = new AppSinkPublisher(sink, executor);
+        TestSubscriber subscriber = new TestSubscriber(1);
+        publisher.subscribe(subscriber);
+        pipeline.play();
+        pushBuffers(3);
+        assertTrue(subscriber.items.await(10, TimeUnit.SECONDS));
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(200);
+        assertEquals(1, subscriber.offsets.size());
+        assertEquals(1, subscriber.complete.getCount());
+        // a new subscriber can take over once cancelled
+        TestSubscriber next = new TestSubscriber(2);
+        publisher.subscribe(next);
+        assertTrue(next.items.await(10, TimeUnit.SECONDS));
+        assertNull(next.error);
+    }
+
+    @Test
+    public void testSecondSubscriberRejected() throws Exception {
+        AppSinkPublisher publisher = new AppSinkPublisher(sink, executor);
+        publisher.subscribe(new TestSubscriber(0));
+        TestSubscriber second = new TestSubscriber(0);
+        publisher.subscribe(second);
+        assertTrue(second.complete.await(10, TimeUnit.SECONDS));
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testSinkError() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(1);
+        new AppSinkPublisher(sink, executor).subscribe(subscriber);
+        pipeline.play();
+        // errors from elements other than the sink are not signalled
+        postError(src);
+        Thread.sleep(200);
+        assertEquals(1, subscriber.complete.getCount());
+        postError(sink);
+        assertTrue(subscriber.complete.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof GstException);
+    }
+
+    @Test
+    public void testThrowingOnCompleteReleasesPublisher() throws Exception {
+        AppSinkPublisher publisher = new AppSinkPublisher(sink, executor);
+        TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                throw new IllegalStateException("test");
+            }
+        };
+        publisher.subscribe(subscriber);
+        pipeline.play();
+        src.endOfStream();
+        assertTrue(subscriber.complete.await(10, TimeUnit.SECONDS));
+        // the executor is still usable and the publisher accepts a new subscriber
+        TestSubscriber next = new TestSubscriber(0);
+        publisher.subscribe(next);
+        Thread.sleep(200);
+        assertNull(next.error);
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Sample> {
+
+        private final long initialRequest;
+        private final List<Long> offsets = new CopyOnWriteArrayList<>();
+        private final CountDownLatch items;
+        private final CountDownLatch complete = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        private TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+            this.items = new CountDownLatch((int) Math.min(initialRequest, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(Sample item) {
+            offsets.add(item.getBuffer().getOffset());
+            item.dispose();
+            items.countDown();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            complete.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            complete.countDown();
+        }
+
+    }
+
+}
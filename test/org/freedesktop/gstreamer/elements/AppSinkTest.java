@@ -0,0 +1,218 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.sun.jna.Native;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Bus;
+import org.freedesktop.gstreamer.FlowReturn;
+import org.freedesktop.gstreamer.GCTracker;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSinkCallbacks;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for AppSink.
+ */
+public class AppSinkTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AppSinkTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    private static Buffer buffer(long offset) {
+        Buffer buffer = new Buffer(4);
+        buffer.setOffset(offset);
+        return buffer;
+    }
+
+    @Test
+    public void testCallbacksStructLayout() {
+        TestAssumptions.requireElement("appsink");
+        // eos, new_preroll, new_sample + GST_PADDING
+        assertEquals(7 * Native.POINTER_SIZE, new AppSinkCallbacks().size());
+    }
+
+    @Test
+    public void testCallbacks() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        AppSink sink = app.sink;
+        AtomicInteger prerolls = new AtomicInteger();
+        List<Long> offsets = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch eos = new CountDownLatch(1);
+        sink.setCallbacks(elem -> eos.countDown(),
+                elem -> {
+                    prerolls.incrementAndGet();
+                    return FlowReturn.OK;
+                },
+                elem -> {
+                    Sample sample = elem.pullSample();
+                    offsets.add(sample.getBuffer().getOffset());
+                    sample.dispose();
+                    return FlowReturn.OK;
+                });
+        try {
+            pipeline.play();
+            for (int i = 0; i < 5; i++) {
+                assertEquals(FlowReturn.OK, src.pushBuffer(buffer(i)));
+            }
+            src.endOfStream();
+            assertTrue("EOS callback not called", eos.await(10, TimeUnit.SECONDS));
+            assertEquals(1, prerolls.get());
+            assertEquals(Arrays.asList(0L, 1L, 2L, 3L, 4L), offsets);
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testNewSampleExceptionReturnsError() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        AppSink sink = app.sink;
+        CountDownLatch error = new CountDownLatch(1);
+        pipeline.getBus().connect((Bus.ERROR) (source, code, message) -> error.countDown());
+        sink.setCallbacks(null, null, elem -> {
+            throw new IllegalStateException("test");
+        });
+        try {
+            pipeline.play();
+            src.pushBuffer(buffer(0));
+            assertTrue("Error not posted", error.await(10, TimeUnit.SECONDS));
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testTryPullSampleTimeout() {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSink sink = app.sink;
+        try {
+            pipeline.play();
+            assertNull(sink.tryPullSample(0, TimeUnit.SECONDS));
+            long start = System.nanoTime();
+            assertNull(sink.tryPullSample(100, TimeUnit.MILLISECONDS));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+            assertFalse(sink.isEOS());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testTryPullSample() {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrc src = app.src;
+        AppSink sink = app.sink;
+        try {
+            pipeline.play();
+            src.pushBuffer(buffer(0));
+            src.pushBuffer(buffer(1));
+            src.endOfStream();
+            for (long i = 0; i < 2; i++) {
+                Sample sample = sink.tryPullSample(10, TimeUnit.SECONDS);
+                assertNotNull(sample);
+                assertEquals(i, sample.getBuffer().getOffset());
+                sample.dispose();
+            }
+            assertNull(sink.tryPullSample(10, TimeUnit.SECONDS));
+            assertTrue(sink.isEOS());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testTryPullPreroll() {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrc src = app.src;
+        AppSink sink = app.sink;
+        try {
+            pipeline.pause();
+            assertNull(sink.tryPullPreroll(0, TimeUnit.SECONDS));
+            src.pushBuffer(buffer(7));
+            Sample sample = sink.tryPullPreroll(10, TimeUnit.SECONDS);
+            assertNotNull(sample);
+            assertEquals(7, sample.getBuffer().getOffset());
+            sample.dispose();
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testClearCallbacksReleasesHandlers() {
+        TestAssumptions.requireElement("appsink");
+        AppSink sink = new AppSink("sink");
+        AppSink.NEW_SAMPLE handler = new AppSink.NEW_SAMPLE() {
+            @Override
+            public FlowReturn newSample(AppSink elem) {
+                return FlowReturn.OK;
+            }
+        };
+        WeakReference<AppSink.NEW_SAMPLE> ref = new WeakReference<>(handler);
+        sink.setCallbacks(null, null, handler);
+        handler = null;
+        sink.clearCallbacks();
+        assertTrue("Handler not released", GCTracker.waitGC(ref));
+        sink.dispose();
+    }
+
+    @Test
+    public void testCallbacksDoNotKeepSinkAlive() {
+        TestAssumptions.requireElement("appsink");
+        AppSink sink = new AppSink("sink");
+        sink.setCallbacks(elem -> {
+        }, null, null);
+        GCTracker tracker = new GCTracker(sink);
+        sink = null;
+        assertTrue("AppSink not garbage collected", tracker.waitGC());
+        assertTrue("AppSink not destroyed", tracker.waitDestroyed());
+    }
+
+}
@@ -0,0 +1,202 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Bus;
+import org.freedesktop.gstreamer.GstObject;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for AppSrcSubscriber.
+ */
+public class AppSrcSubscriberTest {
+
+    private Pipeline pipeline;
+    private AppSrc src;
+    private AppSink sink;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AppSrcSubscriberTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Before
+    public void setUp() {
+        AppTestPipe app = new AppTestPipe();
+        pipeline = app.pipe;
+        src = app.src;
+        sink = app.sink;
+    }
+
+    @After
+    public void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    private static void awaitRequested(TestSubscription subscription, long n) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscription.requested.get() < n) {
+            assertTrue("Not requested", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrefetch() {
+        new AppSrcSubscriber(src, 0);
+    }
+
+    @Test
+    public void testSubscribeOnce() {
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src);
+        TestSubscription first = new TestSubscription();
+        TestSubscription second = new TestSubscription();
+        subscriber.onSubscribe(first);
+        subscriber.onSubscribe(second);
+        assertFalse(first.cancelled);
+        assertTrue(second.cancelled);
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src, 2);
+        TestSubscription subscription = new TestSubscription();
+        subscriber.onSubscribe(subscription);
+        pipeline.play();
+        awaitRequested(subscription, 2);
+        Thread.sleep(100);
+        assertEquals(2, subscription.requested.get());
+        // each delivered item is replaced while the AppSrc is hungry
+        subscriber.onNext(new Buffer(16));
+        assertEquals(3, subscription.requested.get());
+    }
+
+    @Test
+    public void testEnoughDataStopsRequests() throws Exception {
+        src.setMaxBytes(64);
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src, 2);
+        TestSubscription subscription = new TestSubscription();
+        subscriber.onSubscribe(subscription);
+        // paused, so buffers after the preroll buffer stay queued
+        pipeline.pause();
+        awaitRequested(subscription, 2);
+        int delivered = 0;
+        while (delivered < subscription.requested.get() && delivered < 100) {
+            subscriber.onNext(new Buffer(16));
+            delivered++;
+        }
+        assertTrue(delivered < 100);
+        assertTrue(src.getCurrentLevelBytes() >= 64);
+        Thread.sleep(100);
+        assertEquals(delivered, subscription.requested.get());
+    }
+
+    @Test
+    public void testOnCompleteSendsEndOfStream() throws Exception {
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src);
+        TestSubscription subscription = new TestSubscription();
+        subscriber.onSubscribe(subscription);
+        pipeline.play();
+        awaitRequested(subscription, 1);
+        subscriber.onNext(new Buffer(16));
+        subscriber.onComplete();
+        Sample sample = sink.tryPullSample(10, TimeUnit.SECONDS);
+        assertNotNull(sample);
+        sample.dispose();
+        assertNull(sink.tryPullSample(10, TimeUnit.SECONDS));
+        assertTrue(sink.isEOS());
+        assertFalse(subscription.cancelled);
+    }
+
+    @Test
+    public void testOnErrorPostsError() throws Exception {
+        AtomicReference<GstObject> errorSource = new AtomicReference<>();
+        CountDownLatch error = new CountDownLatch(1);
+        pipeline.getBus().connect((Bus.ERROR) (source, code, message) -> {
+            errorSource.set(source);
+            error.countDown();
+        });
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src);
+        subscriber.onSubscribe(new TestSubscription());
+        pipeline.play();
+        subscriber.onError(new IllegalStateException("test"));
+        assertTrue("Error not posted", error.await(10, TimeUnit.SECONDS));
+        assertEquals(src, errorSource.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrcSubscriber subscriber = new AppSrcSubscriber(src);
+        TestSubscription subscription = new TestSubscription();
+        subscriber.onSubscribe(subscription);
+        pipeline.play();
+        awaitRequested(subscription, 1);
+        subscriber.cancel();
+        assertTrue(subscription.cancelled);
+        long requested = subscription.requested.get();
+        // late items are dropped and do not trigger further requests
+        subscriber.onNext(new Buffer(16));
+        assertNull(sink.tryPullSample(100, TimeUnit.MILLISECONDS));
+        assertEquals(requested, subscription.requested.get());
+        // no end-of-stream after cancel
+        subscriber.onComplete();
+        assertNull(sink.tryPullSample(100, TimeUnit.MILLISECONDS));
+        assertFalse(sink.isEOS());
+    }
+
+    private static class TestSubscription implements Flow.Subscription {
+
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested.addAndGet(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+    }
+
+}
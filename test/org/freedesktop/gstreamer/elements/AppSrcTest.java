@@ -0,0 +1,209 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import com.sun.jna.Native;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Caps;
+import org.freedesktop.gstreamer.FlowReturn;
+import org.freedesktop.gstreamer.Format;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.State;
+import org.freedesktop.gstreamer.event.SeekFlags;
+import org.freedesktop.gstreamer.lowlevel.AppAPI.AppSrcCallbacks;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for AppSrc.
+ */
+public class AppSrcTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "AppSrcTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    /**
+     * Pause the pipeline and preroll it with one buffer, after which the
+     * streaming thread is blocked and pushed buffers stay in the AppSrc queue.
+     */
+    private static void preroll(Pipeline pipeline, AppSrc src) {
+        pipeline.pause();
+        assertEquals(FlowReturn.OK, src.pushBuffer(new Buffer(16)));
+        assertEquals(State.PAUSED, pipeline.getState(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCallbacksStructLayout() {
+        TestAssumptions.requireElement("appsrc");
+        // need_data, enough_data, seek_data + GST_PADDING
+        assertEquals(7 * Native.POINTER_SIZE, new AppSrcCallbacks().size());
+    }
+
+    @Test
+    public void testNeedDataAndEnoughData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        src.setMaxBytes(64);
+        CountDownLatch needData = new CountDownLatch(1);
+        CountDownLatch enoughData = new CountDownLatch(1);
+        src.setCallbacks((elem, size) -> needData.countDown(),
+                elem -> enoughData.countDown(),
+                null);
+        try {
+            pipeline.pause();
+            assertTrue("need-data not called", needData.await(10, TimeUnit.SECONDS));
+            // the first buffer prerolls the sink, the rest stay queued
+            for (int i = 0; i < 10 && enoughData.getCount() > 0; i++) {
+                assertEquals(FlowReturn.OK, src.pushBuffer(new Buffer(16)));
+            }
+            assertEquals("enough-data not called", 0, enoughData.getCount());
+            assertTrue(src.getCurrentLevelBytes() >= 64);
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testSeekData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        src.setStreamType(AppSrc.StreamType.SEEKABLE);
+        src.setSize(1024 * 1024);
+        List<Long> offsets = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch seekData = new CountDownLatch(1);
+        src.setCallbacks(null, null, (elem, offset) -> {
+            offsets.add(offset);
+            if (offset == 4096) {
+                seekData.countDown();
+            }
+            return true;
+        });
+        try {
+            preroll(pipeline, src);
+            assertTrue(pipeline.seekSimple(Format.BYTES, EnumSet.of(SeekFlags.FLUSH), 4096));
+            assertTrue("seek-data not called", seekData.await(10, TimeUnit.SECONDS));
+            assertEquals(Long.valueOf(4096), offsets.get(offsets.size() - 1));
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testSeekDataRejected() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        src.setStreamType(AppSrc.StreamType.SEEKABLE);
+        src.setSize(1024 * 1024);
+        src.setCallbacks(null, null, (elem, offset) -> offset == 0);
+        try {
+            preroll(pipeline, src);
+            assertFalse(pipeline.seekSimple(Format.BYTES, EnumSet.of(SeekFlags.FLUSH), 4096));
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testCurrentLevels() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc src = app.src;
+        try {
+            preroll(pipeline, src);
+            assertEquals(0, src.getCurrentLevelBytes());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(FlowReturn.OK, src.pushBuffer(new Buffer(16)));
+            }
+            assertEquals(48, src.getCurrentLevelBytes());
+            if (Gst.testVersion(1, 20)) {
+                assertEquals(3, src.getCurrentLevelBuffers());
+                assertTrue(src.getCurrentLevelTime() >= 0);
+            }
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testPushSample() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrc src = app.src;
+        AppSink sink = app.sink;
+        Caps caps = Caps.fromString("application/x-test, index=(int)1");
+        Buffer buffer = new Buffer(16);
+        buffer.setOffset(42);
+        Sample sample = new Sample(buffer, caps);
+        try {
+            pipeline.play();
+            assertEquals(FlowReturn.OK, src.pushSample(sample));
+            // the sample is not consumed by the push
+            assertEquals(caps, sample.getCaps());
+            sample.dispose();
+            Sample pulled = sink.tryPullSample(10, TimeUnit.SECONDS);
+            assertNotNull(pulled);
+            assertEquals(42, pulled.getBuffer().getOffset());
+            assertTrue(pulled.getCaps().isEqual(caps));
+            pulled.dispose();
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testFlushQueued() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        TestAssumptions.requireGstVersion(1, 10);
+        AppSrc src = app.src;
+        try {
+            preroll(pipeline, src);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(FlowReturn.OK, src.pushBuffer(new Buffer(16)));
+            }
+            assertEquals(48, src.getCurrentLevelBytes());
+            src.flushQueued();
+            assertEquals(0, src.getCurrentLevelBytes());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Format;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.State;
+import org.freedesktop.gstreamer.event.SeekFlags;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for ChannelSource.
+ */
+public class ChannelSourceTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "ChannelSourceTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test(timeout = 10000)
+    public void testReadAndRecycle() throws Exception {
+        byte[] data = AppTestPipe.data(100);
+        try (ChannelSource source = new ChannelSource(
+                Channels.newChannel(new ByteArrayInputStream(data)), 32, 1)) {
+            long position = 0;
+            Buffer buffer;
+            // a pool of one buffer only works if buffers are recycled
+            while ((buffer = source.read(32, position)) != null) {
+                int size = buffer.getSize();
+                assertTrue(size > 0 && size <= 32);
+                assertEquals(position, buffer.getOffset());
+                assertEquals(position + size, buffer.getOffsetEnd());
+                byte[] content = new byte[size];
+                buffer.extract(0, content);
+                for (int i = 0; i < size; i++) {
+                    assertEquals(data[(int) position + i], content[i]);
+                }
+                position += size;
+                buffer.dispose();
+            }
+            assertEquals(100, position);
+        }
+    }
+
+    @Test
+    public void testReadSeekableFillsBuffer() throws Exception {
+        Path file = Files.createTempFile("gst-channel", ".bin");
+        try {
+            Files.write(file, AppTestPipe.data(100));
+            try (ChannelSource source = new ChannelSource(
+                    FileChannel.open(file, StandardOpenOption.READ), 16, 4)) {
+                Buffer buffer = source.read(64, 0);
+                assertEquals(64, buffer.getSize());
+                buffer = source.read(64, 64);
+                assertEquals(36, buffer.getSize());
+                assertNull(source.read(64, 100));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonBlockingChannelRejected() throws Exception {
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.source().configureBlocking(false);
+            new ChannelSource(pipe.source());
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
+    @Test
+    public void testStreamNeedData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(100 * 1024 + 17);
+        try (ChannelSource source = new ChannelSource(
+                Channels.newChannel(new ByteArrayInputStream(data)), 1024, 4)) {
+            source.attach(appsrc);
+            assertEquals(AppSrc.StreamType.STREAM, appsrc.getStreamType());
+            pipeline.play();
+            assertArrayEquals(data, app.pullAll());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testEnoughData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(1024 * 1024);
+        appsrc.setMaxBytes(16 * 1024);
+        try (ChannelSource source = new ChannelSource(
+                Channels.newChannel(new ByteArrayInputStream(data)), 1024, 64)) {
+            source.attach(appsrc);
+            pipeline.pause();
+            assertEquals(State.PAUSED, pipeline.getState(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            // the prerolled sink blocks the streaming thread, so pushing
+            // must have stopped once the AppSrc queue was full
+            assertTrue(appsrc.getCurrentLevelBytes() <= 17 * 1024);
+            pipeline.play();
+            assertArrayEquals(data, app.pullAll());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    public void testSeekData() throws Exception {
+        TestAssumptions.requireGstVersion(1, 10);
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(256 * 1024);
+        Path file = Files.createTempFile("gst-channel", ".bin");
+        try {
+            Files.write(file, data);
+            appsrc.setStreamType(AppSrc.StreamType.SEEKABLE);
+            appsrc.setMaxBytes(16 * 1024);
+            try (ChannelSource source = new ChannelSource(
+                    FileChannel.open(file, StandardOpenOption.READ), 1024, 16)) {
+                source.attach(appsrc);
+                assertEquals(AppSrc.StreamType.SEEKABLE, appsrc.getStreamType());
+                pipeline.pause();
+                Sample preroll = appsink.tryPullPreroll(10, TimeUnit.SECONDS);
+                assertNotNull(preroll);
+                assertEquals(0, preroll.getBuffer().getOffset());
+                preroll.dispose();
+                int offset = 100 * 1024;
+                assertTrue(pipeline.seekSimple(Format.BYTES,
+                        EnumSet.of(SeekFlags.FLUSH), offset));
+                preroll = appsink.tryPullPreroll(10, TimeUnit.SECONDS);
+                assertNotNull(preroll);
+                Buffer buffer = preroll.getBuffer();
+                assertEquals(offset, buffer.getOffset());
+                assertEquals(0, buffer.compare(0, data, offset, buffer.getSize()));
+                preroll.dispose();
+                // no data from before the seek follows the preroll sample,
+                // which is pulled again as the first sample
+                pipeline.play();
+                assertArrayEquals(Arrays.copyOfRange(data, offset, data.length),
+                        app.pullAll());
+            } finally {
+                pipeline.stop();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
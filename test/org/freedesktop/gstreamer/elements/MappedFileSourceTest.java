@@ -0,0 +1,178 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * gstreamer-java is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * gstreamer-java is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with gstreamer-java.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.elements;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import org.freedesktop.gstreamer.AppTestPipe;
+import org.freedesktop.gstreamer.Buffer;
+import org.freedesktop.gstreamer.Format;
+import org.freedesktop.gstreamer.Gst;
+import org.freedesktop.gstreamer.Pipeline;
+import org.freedesktop.gstreamer.Sample;
+import org.freedesktop.gstreamer.State;
+import org.freedesktop.gstreamer.event.SeekFlags;
+import org.freedesktop.gstreamer.util.TestAssumptions;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for MappedFileSource.
+ */
+public class MappedFileSourceTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Gst.init(Gst.getVersion(), "MappedFileSourceTest");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        Gst.deinit();
+    }
+
+    @Test
+    public void testRandomAccessNeedData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(100 * 1024 + 17);
+        Path file = Files.createTempFile("gst-mapped", ".bin");
+        try {
+            Files.write(file, data);
+            try (MappedFileSource source = new MappedFileSource(file, 1024, 8 * 1024)) {
+                source.attach(appsrc);
+                assertEquals(AppSrc.StreamType.RANDOM_ACCESS, appsrc.getStreamType());
+                assertEquals(data.length, appsrc.getSize());
+                pipeline.play();
+                assertArrayEquals(data, app.pullAll());
+                pipeline.stop();
+            }
+        } finally {
+            pipeline.stop();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSeekableEnoughData() throws Exception {
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(1024 * 1024);
+        Path file = Files.createTempFile("gst-mapped", ".bin");
+        try {
+            Files.write(file, data);
+            appsrc.setStreamType(AppSrc.StreamType.SEEKABLE);
+            appsrc.setMaxBytes(16 * 1024);
+            try (MappedFileSource source = new MappedFileSource(file, 1024, 64 * 1024)) {
+                source.attach(appsrc);
+                assertEquals(AppSrc.StreamType.SEEKABLE, appsrc.getStreamType());
+                pipeline.pause();
+                assertEquals(State.PAUSED, pipeline.getState(10, TimeUnit.SECONDS));
+                // the prerolled sink blocks the streaming thread, so pushing
+                // must have stopped once the AppSrc queue was full
+                long position = source.getPosition();
+                assertTrue("Pushing did not stop at " + position, position <= 20 * 1024);
+                assertTrue(appsrc.getCurrentLevelBytes() <= 17 * 1024);
+                pipeline.play();
+                assertArrayEquals(data, app.pullAll());
+                pipeline.stop();
+            }
+        } finally {
+            pipeline.stop();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSeekData() throws Exception {
+        TestAssumptions.requireGstVersion(1, 10);
+        AppTestPipe app = new AppTestPipe();
+        Pipeline pipeline = app.pipe;
+        AppSrc appsrc = app.src;
+        AppSink appsink = app.sink;
+        byte[] data = AppTestPipe.data(256 * 1024);
+        Path file = Files.createTempFile("gst-mapped", ".bin");
+        try {
+            Files.write(file, data);
+            appsrc.setStreamType(AppSrc.StreamType.SEEKABLE);
+            appsrc.setMaxBytes(16 * 1024);
+            try (MappedFileSource source = new MappedFileSource(file, 1024, 64 * 1024)) {
+                source.attach(appsrc);
+                pipeline.pause();
+                Sample preroll = appsink.tryPullPreroll(10, TimeUnit.SECONDS);
+                assertNotNull(preroll);
+                assertEquals(0, preroll.getBuffer().getOffset());
+                preroll.dispose();
+                int offset = 100 * 1024;
+                assertTrue(pipeline.seekSimple(Format.BYTES,
+                        EnumSet.of(SeekFlags.FLUSH), offset));
+                preroll = appsink.tryPullPreroll(10, TimeUnit.SECONDS);
+                assertNotNull(preroll);
+                Buffer buffer = preroll.getBuffer();
+                assertEquals(offset, buffer.getOffset());
+                assertEquals(0, buffer.compare(0, data, offset, buffer.getSize()));
+                preroll.dispose();
+                pipeline.stop();
+            }
+        } finally {
+            pipeline.stop();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSegments() throws Exception {
+        Path file = Files.createTempFile("gst-mapped", ".bin");
+        try {
+            byte[] data = new byte[100];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            Files.write(file, data);
+            try (MappedFileSource source = new MappedFileSource(file, 16, 32)) {
+                assertEquals(100, source.getFileSize());
+                int position = 0;
+                Buffer buffer;
+                while ((buffer = source.nextSegment(24)) != null) {
+                    int size = buffer.getSize();
+                    assertEquals(Math.min(24, 100 - position), size);
+                    assertEquals(position, buffer.getOffset());
+                    assertEquals(position + size, buffer.getOffsetEnd());
+                    byte[] expected = new byte[size];
+                    System.arraycopy(data, position, expected, 0, size);
+                    assertEquals(0, buffer.compare(0, expected));
+                    position += size;
+                    buffer.dispose();
+                }
+                assertEquals(100, position);
+                assertEquals(100, source.getPosition());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BlockingCallsTest {
+
+    @Test
+    public void testPlatformThreadCallsDirectly() {
+        assertFalse(BlockingCalls.isVirtualThread());
+        Thread caller = Thread.currentThread();
+        assertSame(caller, BlockingCalls.invoke(Thread::currentThread));
+    }
+
+    @Test
+    public void testOffloadedCallRunsOnPoolThread() {
+        Thread caller = Thread.currentThread();
+        Thread executor = BlockingCalls.invoke(Thread::currentThread, true);
+        assertNotSame(caller, executor);
+        assertTrue(executor.isDaemon());
+        assertEquals("result", BlockingCalls.invoke(() -> "result", true));
+    }
+
+    @Test
+    public void testOffloadedCallPropagatesException() {
+        try {
+            BlockingCalls.invoke(() -> {
+                throw new IllegalArgumentException("test");
+            }, true);
+            fail("Exception not propagated");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("test", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testOffloadedCallRestoresInterrupt() {
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals("result", BlockingCalls.invoke(() -> "result", true));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testOffloadedCallsDoNotWaitForEachOther() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Thread blocked = new Thread(() -> BlockingCalls.invoke(() -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                return false;
+            }
+        }, true));
+        blocked.start();
+        try {
+            assertEquals("result", BlockingCalls.invoke(() -> "result", true));
+        } finally {
+            release.countDown();
+            blocked.join();
+        }
+    }
+
+    @Test
+    public void testTimedCallDirect() {
+        List<Long> timeouts = new ArrayList<>();
+        assertNull(BlockingCalls.invokeTimed(t -> {
+            timeouts.add(t);
+            return null;
+        }, 1000, r -> r == null, false));
+        assertEquals(1, timeouts.size());
+        assertEquals(1000L, (long) timeouts.get(0));
+    }
+
+    @Test
+    public void testTimedCallPollsUntilResult() {
+        List<Long> timeouts = new ArrayList<>();
+        assertEquals("result", BlockingCalls.invokeTimed(t -> {
+            timeouts.add(t);
+            return timeouts.size() < 5 ? null : "result";
+        }, -1, r -> r == null, true));
+        assertEquals(5, timeouts.size());
+        for (long t : timeouts) {
+            assertEquals(0, t);
+        }
+    }
+
+    @Test
+    public void testTimedCallPollsUntilTimeout() {
+        long timeout = TimeUnit.MILLISECONDS.toNanos(50);
+        long start = System.nanoTime();
+        assertNull(BlockingCalls.invokeTimed(t -> null, timeout, r -> r == null, true));
+        assertTrue(System.nanoTime() - start >= timeout);
+    }
+
+    @Test
+    public void testTimedCallRestoresInterrupt() {
+        int[] calls = new int[1];
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals("result", BlockingCalls.invokeTimed(
+                    t -> ++calls[0] < 3 ? null : "result", -1, r -> r == null, true));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+}
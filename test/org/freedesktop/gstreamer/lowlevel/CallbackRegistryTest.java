@@ -0,0 +1,72 @@
+/*
+ * This file is part of gstreamer-java.
+ *
+ * This code is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+ * version 3 for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * version 3 along with this work.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.freedesktop.gstreamer.lowlevel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sun.jna.Pointer;
+import org.junit.Test;
+
+public class CallbackRegistryTest {
+
+    @Test
+    public void testRegisterAndGet() {
+        CallbackRegistry<String> registry = new CallbackRegistry<>("CallbackRegistryTest");
+        Pointer first = registry.register("first");
+        Pointer second = registry.register("second");
+        assertEquals("first", registry.get(first));
+        assertEquals("second", registry.get(second));
+    }
+
+    @Test
+    public void testDestroyNotifyRemovesEntry() {
+        List<String> removed = new ArrayList<>();
+        CallbackRegistry<String> registry = new CallbackRegistry<>("CallbackRegistryTest", removed::add);
+        Pointer userData = registry.register("value");
+        registry.getDestroyNotify().callback(userData);
+        assertNull(registry.get(userData));
+        assertEquals(1, removed.size());
+        assertSame("value", removed.get(0));
+        // a second notify for the same key is ignored
+        registry.getDestroyNotify().callback(userData);
+        assertEquals(1, removed.size());
+    }
+
+    @Test
+    public void testRemoveDoesNotCallHandler() {
+        List<String> removed = new ArrayList<>();
+        CallbackRegistry<String> registry = new CallbackRegistry<>("CallbackRegistryTest", removed::add);
+        Pointer userData = registry.register("value");
+        assertEquals("value", registry.remove(userData));
+        assertNull(registry.get(userData));
+        assertEquals(0, removed.size());
+    }
+
+    @Test
+    public void testExceptionInHandlerIsContained() {
+        CallbackRegistry<String> registry = new CallbackRegistry<>("CallbackRegistryTest", v -> {
+            throw new IllegalStateException(v);
+        });
+        Pointer userData = registry.register("value");
+        registry.getDestroyNotify().callback(userData);
+        assertNull(registry.get(userData));
+    }
+
+}